@@ -0,0 +1,84 @@
+import benchmarks.HotPaths;
+
+import java.util.SplittableRandom;
+
+public class EngineHotPaths implements HotPaths {
+    /***
+     * The engine's side of benchmarks.EngineBenchmark.
+     * The positions are built by SearchBenchmark. The benchmarks load this class by the name HotPaths.ENGINE, so
+     * renaming it means changing that too.
+     */
+    private static final int SEARCH_ITERATIONS = 1000;
+    private final Game position;
+    private final Game freePlace;
+    private final SplittableRandom random;
+    private final ISMCTS search;
+    private final Card moveOne = MoveOneCard.INSTANCE;
+    private final Card moveAll = MoveAllCard.INSTANCE;
+    private final Card split = SplitCard.INSTANCE;
+
+    public EngineHotPaths() {
+        this.position = SearchBenchmark.midGame(SearchBenchmark.DEFAULT_MOVES, SearchBenchmark.DEFAULT_SEED);
+        this.freePlace = SearchBenchmark.freePlace(SearchBenchmark.DEFAULT_SEED);
+        this.random = new SplittableRandom(SearchBenchmark.DEFAULT_SEED);
+        this.search = new ISMCTS(SEARCH_ITERATIONS, false);
+        this.search.setReuseTree(false);
+    }
+
+    @Override
+    public Object copyGame() {
+        return new Game(this.position);
+    }
+
+    @Override
+    public Object copyBoard() {
+        return new Board(this.position.getBoard());
+    }
+
+    @Override
+    public Object moveOneCardMoves() {
+        return this.moveOne.getPossibleMoves(this.position.getBoard());
+    }
+
+    @Override
+    public Object moveAllCardMoves() {
+        return this.moveAll.getPossibleMoves(this.position.getBoard());
+    }
+
+    @Override
+    public Object splitCardMoves() {
+        return this.split.getPossibleMoves(this.position.getBoard());
+    }
+
+    @Override
+    public Object freePlaceGames() {
+        return this.freePlace.getFreePlace();
+    }
+
+    @Override
+    public Object freePlaceMoves() {
+        // The moves alone, as search lists them, without building each successor
+        return this.freePlace.listFreePlaces();
+    }
+
+    @Override
+    public Object cloneAndRandomise() {
+        return this.position.cloneAndRandomise(this.position.getActivePlayerType(), this.random);
+    }
+
+    @Override
+    public Object randomPlayout() {
+        // A determinization of the position played out at random, as in a search iteration
+        Game game = this.position.cloneAndRandomise(this.position.getActivePlayerType(), this.random);
+        while(!(game.getState() == GameState.SCIENTIST_WIN || game.getState() == GameState.CREATURE_WIN)) {
+            game.makeMove(game.sampleMove(this.random));
+        }
+        return game.getState();
+    }
+
+    @Override
+    public Object selectMove() {
+        this.search.setSeed(SearchBenchmark.DEFAULT_SEED);
+        return this.search.selectMove(this.position);
+    }
+}
@@ -0,0 +1,118 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+public class SearchBenchmark {
+    /***
+     * Measures ISMCTS search throughput from a fixed mid-game position, and builds the positions the JMH benchmarks
+     * start from. Built with the jmh profile, it runs with java -cp target/benchmarks.jar SearchBenchmark.
+     * The mid-game position is reached by seeded random moves from a seeded game whose decks are put in a fixed
+     * order, so the same seed gives the same position.
+     */
+    public static final int DEFAULT_MOVES = 20;
+    public static final long DEFAULT_SEED = 42;
+
+    public static Game midGame(int moves, long seed) {
+        // Play random moves, then carry on until the players are moving cubes again with a choice to make
+        Random rand = new Random(seed);
+        Game game = SearchBenchmark.unshuffled(seed);
+        for(int i = 0; i < moves || game.getState() != GameState.MOVE_CUBES || game.getLegalMoves().length < 2; i++) {
+            long[] legal = game.getLegalMoves();
+            if(legal.length == 0) {
+                // The game ended early, so start again
+                game = SearchBenchmark.unshuffled(seed);
+                continue;
+            }
+            game.makeMove(legal[rand.nextInt(legal.length)]);
+        }
+        return game;
+    }
+
+    public static Game freePlace(long seed) {
+        // The first position with more than one dropped cube to place, playing random moves from seeded games
+        for(long s = seed; ; s++) {
+            SplittableRandom random = new SplittableRandom(s);
+            Game game = new Game(s);
+            while(game.getLegalMoves().length > 0) {
+                if(game.getState() == GameState.FREE_PLACE && game.getDroppedCubes().size() > 1) {
+                    return game;
+                }
+                long[] moves = game.getLegalMoves();
+                game.makeMove(moves[random.nextInt(moves.length)]);
+            }
+        }
+    }
+
+    private static Game unshuffled(long seed) {
+        // A new game with each player's cards dealt, and the tiles stacked, in a fixed order. Later shuffles follow
+        // from the seed.
+        Game game = new Game(seed);
+        for(Player player : new Player[] {game.getScientist(), game.getCreature()}) {
+            List<Card> cards = new ArrayList<>(player.getHand().getItems());
+            cards.addAll(player.getDeck().getItems());
+            cards.sort(Comparator.comparing(Card::toString));
+            int handSize = player.getHand().size();
+            player.getHand().setItems(cards.subList(0, handSize));
+            player.getDeck().setItems(cards.subList(handSize, cards.size()));
+        }
+        List<Tile> tiles = new ArrayList<>(game.getTiles().getItems());
+        tiles.sort(Comparator.comparing(Tile::isToken));
+        game.getTiles().setItems(tiles);
+        return game;
+    }
+
+    public static double iterationsPerSecond(ISMCTS search, Game position, int searches) {
+        // Mean throughput over a number of searches from the same position
+        long iterations = 0;
+        long start = System.nanoTime();
+        for(int i = 0; i < searches; i++) {
+            search.selectMove(position);
+            iterations += search.getLastIterations();
+        }
+        return iterations * 1e9 / (System.nanoTime() - start);
+    }
+
+    public static double selectionsPerSecond(int children, int selections, long seed) {
+        // Throughput of selecting among a node's children, with made up results for each child and most moves legal
+        Random rand = new Random(seed);
+        TreeNode node = new TreeNode(Move.NONE, null, null, ISMCTS.DEFAULT_EXPLORATION);
+        MoveList legal = new MoveList();
+        for(int i = 0; i < children; i++) {
+            TreeNode child = node.addChild(i, PlayerType.CREATURE);
+            child.setVisits(1 + rand.nextInt(1000));
+            child.setWins(rand.nextInt(child.getVisits() + 1));
+            child.setAvails(child.getVisits() + rand.nextInt(1000));
+            if(rand.nextInt(4) != 0) {
+                legal.add(i);
+            }
+        }
+        long[] legalMoves = legal.toSortedArray();
+        long chosen = 0;
+        long start = System.nanoTime();
+        for(int i = 0; i < selections; i++) {
+            chosen += node.selectChild(legalMoves).getMove();
+        }
+        double perSecond = selections * 1e9 / (System.nanoTime() - start);
+        // Use the result so the selections cannot be optimised away
+        return chosen < 0 ? 0 : perSecond;
+    }
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int searches = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        Game position = SearchBenchmark.midGame(DEFAULT_MOVES, DEFAULT_SEED);
+        System.out.println(position.getBoard());
+        System.out.println("Legal moves: " + position.getLegalMoves().length);
+        ISMCTS search = new ISMCTS(iterations, false);
+        search.setReuseTree(false);
+        search.setSeed(DEFAULT_SEED);
+        // Warm up, then measure
+        SearchBenchmark.iterationsPerSecond(search, position, searches);
+        System.out.println("Iterations per second: " + SearchBenchmark.iterationsPerSecond(search, position, searches));
+        // Selection alone, from a node as wide as a mid-game card play
+        SearchBenchmark.selectionsPerSecond(40, 1000000, DEFAULT_SEED);
+        System.out.println("Selections per second: " + SearchBenchmark.selectionsPerSecond(40, 1000000, DEFAULT_SEED));
+    }
+}
@@ -0,0 +1,101 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EngineBenchmark {
+    /***
+     * Throughput of the engine's hot paths, as run by EngineHotPaths. Run with -prof gc, or through main, to report
+     * the allocation rate alongside.
+     */
+    private HotPaths engine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The engine can only be reached by name from here, so fail loudly if the name no longer finds it
+        try {
+            this.engine = (HotPaths) Class.forName(HotPaths.ENGINE).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalStateException(HotPaths.ENGINE + " must be a HotPaths in the default package", e);
+        }
+    }
+
+    @Benchmark
+    public Object copyGame() {
+        return this.engine.copyGame();
+    }
+
+    @Benchmark
+    public Object copyBoard() {
+        return this.engine.copyBoard();
+    }
+
+    @Benchmark
+    public Object moveOneCardMoves() {
+        return this.engine.moveOneCardMoves();
+    }
+
+    @Benchmark
+    public Object moveAllCardMoves() {
+        return this.engine.moveAllCardMoves();
+    }
+
+    @Benchmark
+    public Object splitCardMoves() {
+        return this.engine.splitCardMoves();
+    }
+
+    @Benchmark
+    public Object freePlaceGames() {
+        return this.engine.freePlaceGames();
+    }
+
+    @Benchmark
+    public Object freePlaceMoves() {
+        return this.engine.freePlaceMoves();
+    }
+
+    @Benchmark
+    public Object cloneAndRandomise() {
+        return this.engine.cloneAndRandomise();
+    }
+
+    @Benchmark
+    public Object randomPlayout() {
+        return this.engine.randomPlayout();
+    }
+
+    @Benchmark
+    public Object selectMove() {
+        return this.engine.selectMove();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // Run every benchmark in this class, with the allocation profiler
+        new Runner(new OptionsBuilder()
+                .include(EngineBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
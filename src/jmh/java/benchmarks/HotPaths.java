@@ -0,0 +1,32 @@
+package benchmarks;
+
+public interface HotPaths {
+    /***
+     * The engine's hot paths, each run once per call from fixed positions with fixed seeds.
+     * JMH needs benchmarks to be in a package, and the engine is in the default package, which a named package cannot
+     * refer to. So the engine's side of each benchmark is written against this interface by EngineHotPaths, in the
+     * default package, and the benchmarks load it by name. This bridge is a stopgap until the engine moves into a
+     * package of its own, when the benchmarks can call it directly and this interface can go.
+     */
+    String ENGINE = "EngineHotPaths";
+
+    Object copyGame();
+
+    Object copyBoard();
+
+    Object moveOneCardMoves();
+
+    Object moveAllCardMoves();
+
+    Object splitCardMoves();
+
+    Object freePlaceGames();
+
+    Object freePlaceMoves();
+
+    Object cloneAndRandomise();
+
+    Object randomPlayout();
+
+    Object selectMove();
+}
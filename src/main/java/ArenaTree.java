@@ -0,0 +1,208 @@
+import java.util.Arrays;
+
+public class ArenaTree {
+    /***
+     * ISMCTS game tree held in parallel primitive arrays rather than as TreeNode objects.
+     * A node is an index into the arrays. The root is node 0, and each node's children are a linked list through
+     * firstChild and nextSibling, oldest first as in TreeNode, so ties in selection go the same way. Clearing the
+     * tree keeps the arrays, so a tree used for search after search allocates nothing once it has grown to the size
+     * it needs.
+     * Selection, expansion and update work as they do for TreeNode.
+     */
+    public static final int ROOT = 0;
+    private static final int NONE = -1;
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final PlayerType[] PLAYERS = PlayerType.values();
+    private final double exploration;
+    private int size;
+    private long[] moves;
+    private int[] parents;
+    private int[] firstChildren;
+    private int[] lastChildren;
+    private int[] nextSiblings;
+    private int[] wins;
+    private int[] visits;
+    private int[] avails;
+    // Player who made the move into the node, as ordinal + 1, or 0 for none
+    private byte[] justMoved;
+    // Marks which legal moves have been tried, for the last call to countUntriedMoves
+    private boolean[] tried;
+
+    public ArenaTree(double exploration) {
+        this(exploration, DEFAULT_CAPACITY);
+    }
+
+    public ArenaTree(double exploration, int capacity) {
+        this.exploration = exploration;
+        this.moves = new long[capacity];
+        this.parents = new int[capacity];
+        this.firstChildren = new int[capacity];
+        this.lastChildren = new int[capacity];
+        this.nextSiblings = new int[capacity];
+        this.wins = new int[capacity];
+        this.visits = new int[capacity];
+        this.avails = new int[capacity];
+        this.justMoved = new byte[capacity];
+        this.tried = new boolean[16];
+        this.clear();
+    }
+
+    public void clear() {
+        // Remove every node but a fresh root
+        this.size = 0;
+        this.newNode(Move.NONE, NONE, null);
+    }
+
+    private int newNode(long move, int parent, PlayerType player) {
+        if(this.size == this.moves.length) {
+            this.grow();
+        }
+        int node = this.size++;
+        this.moves[node] = move;
+        this.parents[node] = parent;
+        this.firstChildren[node] = NONE;
+        this.lastChildren[node] = NONE;
+        this.nextSiblings[node] = NONE;
+        this.wins[node] = 0;
+        this.visits[node] = 0;
+        this.avails[node] = 1;
+        this.justMoved[node] = (byte) (player == null ? 0 : player.ordinal() + 1);
+        return node;
+    }
+
+    private void grow() {
+        int capacity = this.moves.length * 2;
+        this.moves = Arrays.copyOf(this.moves, capacity);
+        this.parents = Arrays.copyOf(this.parents, capacity);
+        this.firstChildren = Arrays.copyOf(this.firstChildren, capacity);
+        this.lastChildren = Arrays.copyOf(this.lastChildren, capacity);
+        this.nextSiblings = Arrays.copyOf(this.nextSiblings, capacity);
+        this.wins = Arrays.copyOf(this.wins, capacity);
+        this.visits = Arrays.copyOf(this.visits, capacity);
+        this.avails = Arrays.copyOf(this.avails, capacity);
+        this.justMoved = Arrays.copyOf(this.justMoved, capacity);
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int capacity() {
+        return this.moves.length;
+    }
+
+    public long getMove(int node) {
+        return this.moves[node];
+    }
+
+    public int getParent(int node) {
+        // Parent of a node, or -1 for the root
+        return this.parents[node];
+    }
+
+    public int getFirstChild(int node) {
+        // First child of a node, or -1 if it has none
+        return this.firstChildren[node];
+    }
+
+    public int getNextSibling(int node) {
+        // Next child of the node's parent, or -1 if this is the last
+        return this.nextSiblings[node];
+    }
+
+    public int getWins(int node) {
+        return this.wins[node];
+    }
+
+    public int getVisits(int node) {
+        return this.visits[node];
+    }
+
+    public int getAvails(int node) {
+        return this.avails[node];
+    }
+
+    public PlayerType getJustMoved(int node) {
+        return this.justMoved[node] == 0 ? null : PLAYERS[this.justMoved[node] - 1];
+    }
+
+    public int countUntriedMoves(int node, long[] legalMoves) {
+        // Count the legal moves which have not been tried, marking those which have. legalMoves must be sorted.
+        if(this.tried.length < legalMoves.length) {
+            this.tried = new boolean[Math.max(legalMoves.length, this.tried.length * 2)];
+        }
+        Arrays.fill(this.tried, 0, legalMoves.length, false);
+        int untried = legalMoves.length;
+        for(int child = this.firstChildren[node]; child != NONE; child = this.nextSiblings[child]) {
+            int idx = Arrays.binarySearch(legalMoves, this.moves[child]);
+            if(idx >= 0 && !this.tried[idx]) {
+                this.tried[idx] = true;
+                untried--;
+            }
+        }
+        return untried;
+    }
+
+    public long getUntriedMove(long[] legalMoves, int n) {
+        // The nth untried move counted by the last call to countUntriedMoves
+        for(int i = 0; i < legalMoves.length; i++) {
+            if(!this.tried[i] && n-- == 0) {
+                return legalMoves[i];
+            }
+        }
+        throw new IndexOutOfBoundsException("Fewer than " + (n + 1) + " untried moves");
+    }
+
+    public int selectChild(int node, long[] legalMoves) {
+        // Select a child node for which the move is legal, based on UCB1 formula. legalMoves must be sorted.
+        int selected = NONE;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for(int child = this.firstChildren[node]; child != NONE; child = this.nextSiblings[child]) {
+            if(Arrays.binarySearch(legalMoves, this.moves[child]) < 0) {
+                continue;
+            }
+            double score = this.ucbScore(child);
+            if(selected == NONE || score > bestScore) {
+                selected = child;
+                bestScore = score;
+            }
+            // Updated availability counts
+            this.avails[child]++;
+        }
+        return selected;
+    }
+
+    public double ucbScore(int node) {
+        double visits = this.visits[node];
+        return this.wins[node] / visits + this.exploration * Math.sqrt(Math.log(this.avails[node]) / visits);
+    }
+
+    public int addChild(int node, long move, PlayerType justMoved) {
+        // Append the child, so children are in the order they were added
+        int child = this.newNode(move, node, justMoved);
+        if(this.lastChildren[node] == NONE) {
+            this.firstChildren[node] = child;
+        } else {
+            this.nextSiblings[this.lastChildren[node]] = child;
+        }
+        this.lastChildren[node] = child;
+        return child;
+    }
+
+    public void update(int node, GameState terminalState) {
+        // Update node - increment visit count, increase win count if terminal state matches win state
+        this.visits[node]++;
+        PlayerType player = this.getJustMoved(node);
+        if((player == PlayerType.SCIENTIST && terminalState == GameState.SCIENTIST_WIN) ||
+                (player == PlayerType.CREATURE && terminalState == GameState.CREATURE_WIN)) {
+            this.wins[node]++;
+        }
+    }
+
+    public void backpropagate(int node, GameState terminalState) {
+        // Update a node and every node above it
+        for(int n = node; n != NONE; n = this.parents[n]) {
+            this.update(n, terminalState);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+public class BalanceSprt {
+    /***
+     * Sequential probability ratio test (SPRT) of whether a set of rules is balanced, to be checked after each game
+     * so a tournament can stop as soon as its result is settled.
+     * Two of Wald's one sided tests run side by side on the scientist's win rate: an even game against one the
+     * scientist wins margin more often, and an even game against one the creature wins margin more often. The rules
+     * favour a side once that side's test accepts its alternative, and are balanced once both accept an even game.
+     * alpha is the chance of calling an even game one sided, and beta the chance of calling balanced a game which
+     * is one sided by margin. Win rates between the two are settled either way, and take the most games to settle.
+     */
+    public static final double DEFAULT_MARGIN = 0.05;
+    public static final double DEFAULT_ERROR = 0.05;
+    public enum Verdict {UNDECIDED, BALANCED, SCIENTIST_FAVOURED, CREATURE_FAVOURED};
+    private static final double EVEN = 0.5;
+    private final double margin;
+    // Log likelihood ratios at or below which the even game is accepted, and at or above which the one sided game is
+    private final double acceptEven;
+    private final double acceptOneSided;
+
+    public BalanceSprt(double margin, double alpha, double beta) {
+        if(margin <= 0 || margin >= EVEN) {
+            throw new IllegalArgumentException("Margin must be between 0 and " + EVEN);
+        }
+        if(alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1) {
+            throw new IllegalArgumentException("Error rates must be between 0 and 1");
+        }
+        this.margin = margin;
+        this.acceptEven = Math.log(beta / (1 - alpha));
+        this.acceptOneSided = Math.log((1 - beta) / alpha);
+    }
+
+    public BalanceSprt(double margin) {
+        this(margin, DEFAULT_ERROR, DEFAULT_ERROR);
+    }
+
+    public double getMargin() {
+        return margin;
+    }
+
+    public Verdict decide(int scientistWins, int games) {
+        double scientistRatio = BalanceSprt.logLikelihoodRatio(scientistWins, games, EVEN + this.margin);
+        double creatureRatio = BalanceSprt.logLikelihoodRatio(scientistWins, games, EVEN - this.margin);
+        if(scientistRatio >= this.acceptOneSided) {
+            return Verdict.SCIENTIST_FAVOURED;
+        }
+        if(creatureRatio >= this.acceptOneSided) {
+            return Verdict.CREATURE_FAVOURED;
+        }
+        if(scientistRatio <= this.acceptEven && creatureRatio <= this.acceptEven) {
+            return Verdict.BALANCED;
+        }
+        return Verdict.UNDECIDED;
+    }
+
+    private static double logLikelihoodRatio(int wins, int games, double oneSided) {
+        // How much more likely the results are if the scientist wins with probability oneSided than if the game is
+        // even, as a log
+        return wins * Math.log(oneSided / EVEN) + (games - wins) * Math.log((1 - oneSided) / (1 - EVEN));
+    }
+}
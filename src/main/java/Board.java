@@ -1,8 +1,5 @@
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 
-import java.lang.reflect.Array;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -10,19 +7,41 @@ import java.util.stream.Stream;
 
 public class Board {
     public static int DEFAULT_MAX_WIDTH = 7;
-    private List<Tile> topRowTiles;
-    private List<Tile> bottomRowTiles;
-    private List<Space> topRowSpaces;
-    private List<Space> bottomRowSpaces;
-    private List<Tile> activeRowTiles;
-    private List<Space> activeRowSpaces;
+    // The board is packed into primitives, so copying one is a handful of assignments.
+    // Each row's spaces are held in a long, 12 bits per space from the left, and within a space 4 bits holding
+    // the count of cubes of each color (by ordinal). Each row's tiles are held in an int, 3 bits per tile from the
+    // left, flagging a token tile, a token present and the creature present.
+    // A row of 5 spaces fills 60 bits, which is the most a board of width 7 can need.
+    public static final int MAX_PACKED_WIDTH = 7;
+    private static final int COLOR_BITS = 4;
+    private static final int SPACE_BITS = 12;
+    private static final int TILE_BITS = 3;
+    private static final int COLOR_MAX = (1 << COLOR_BITS) - 1;
+    // Every cube of a color can end up in one space, so a game can have no more than this many of each color
+    public static final int MAX_CUBES_OF_COLOR = COLOR_MAX;
+    private static final int TOKEN = 1;
+    private static final int TOKEN_PRESENT = 2;
+    private static final int CREATURE_PRESENT = 4;
+    private static final Color[] COLORS = Color.values();
+    private long topRowSpaces;
+    private long bottomRowSpaces;
+    private int topRowTiles;
+    private int bottomRowTiles;
+    private int topRowWidth;
+    private int bottomRowWidth;
+    private boolean topRowActive;
     private int maxWidth;
+    // Zobrist key of the board, kept up to date as cubes and tiles change
+    private long key;
     public enum Side {LEFT, RIGHT};
 
     public Board(int maxWidth, Deck<Tile> deck, List<Cube> leftCubes, List<Cube> rightCubes) {
         // The board is made of two rows - top and bottom
         // The active row will always be one shorter than the other
-        // The first tile / space in the list will be the leftmost
+        // The first tile / space in a row will be the leftmost
+        if(maxWidth > MAX_PACKED_WIDTH) {
+            throw new IllegalArgumentException("Board width cannot be more than " + MAX_PACKED_WIDTH);
+        }
         this.maxWidth = maxWidth;
         this.initBoard(deck, leftCubes, rightCubes);
     }
@@ -33,232 +52,560 @@ public class Board {
 
     public Board(Board board) {
         // Copy constructor for board
-        this.maxWidth = board.getMaxWidth();
-        this.topRowTiles = board.topRowTiles.stream()
-                .map(Tile::new)
-                .collect(Collectors.toList());
-        this.bottomRowTiles = board.bottomRowTiles.stream()
-                .map(Tile::new)
-                .collect(Collectors.toList());
-        this.topRowSpaces = board.topRowSpaces.stream()
-                .map(Space::new)
-                .collect(Collectors.toList());
-        this.bottomRowSpaces = board.bottomRowSpaces.stream()
-                .map(Space::new)
-                .collect(Collectors.toList());
-        this.activeRowSpaces = board.bottomRowSpaces == board.activeRowSpaces ? this.bottomRowSpaces : this.topRowSpaces;
-        this.activeRowTiles = board.bottomRowTiles == board.activeRowTiles ? this.bottomRowTiles : this.topRowTiles;
+        this.maxWidth = board.maxWidth;
+        this.topRowSpaces = board.topRowSpaces;
+        this.bottomRowSpaces = board.bottomRowSpaces;
+        this.topRowTiles = board.topRowTiles;
+        this.bottomRowTiles = board.bottomRowTiles;
+        this.topRowWidth = board.topRowWidth;
+        this.bottomRowWidth = board.bottomRowWidth;
+        this.topRowActive = board.topRowActive;
+        this.key = board.key;
     }
 
     private void initBoard(Deck<Tile> deck, List<Cube> leftCubes, List<Cube> rightCubes) {
-        // Initialise tiles
+        // Initialise tiles. The bottom row starts active, with the creature on its only tile.
         Tile startTile = deck.draw();
         Tile leftTopTile = deck.draw();
         Tile rightTopTile = deck.draw();
-        startTile.setCreaturePresent(true);
-        this.bottomRowTiles = new ArrayList<>(Arrays.asList(startTile));
-        this.bottomRowSpaces = new ArrayList<>(Arrays.asList(new Space(leftCubes), new Space(rightCubes)));
-        this.topRowTiles = new ArrayList<>(Arrays.asList(leftTopTile, rightTopTile));
-        this.topRowSpaces = IntStream.range(0, 3).mapToObj(i -> new Space()).collect(Collectors.toList());
-        this.activeRowSpaces = bottomRowSpaces;
-        this.activeRowTiles = bottomRowTiles;
+        this.bottomRowWidth = 1;
+        this.bottomRowTiles = Board.tileFlags(startTile) | CREATURE_PRESENT;
+        this.topRowWidth = 2;
+        this.topRowTiles = Board.tileFlags(leftTopTile) | (Board.tileFlags(rightTopTile) << TILE_BITS);
+        this.topRowActive = false;
+        this.key = this.computeKey();
+        leftCubes.forEach(c -> this.addCubes(true, 0, c.getColor(), 1));
+        rightCubes.forEach(c -> this.addCubes(true, 1, c.getColor(), 1));
+    }
+
+    private static int tileFlags(Tile tile) {
+        return (tile.isToken() ? TOKEN : 0) |
+                (tile.isTokenPresent() ? TOKEN_PRESENT : 0) |
+                (tile.isCreaturePresent() ? CREATURE_PRESENT : 0);
     }
 
     public int getMaxWidth() {
         return this.maxWidth;
     }
 
+    // Primitive access to rows. Rows are addressed as active or inactive, as the game rules are.
+
+    private boolean isTop(boolean activeRow) {
+        return activeRow == this.topRowActive;
+    }
+
+    private long getSpaces(boolean top) {
+        return top ? this.topRowSpaces : this.bottomRowSpaces;
+    }
+
+    private void setSpaces(boolean top, long spaces) {
+        if(top) {
+            this.topRowSpaces = spaces;
+        } else {
+            this.bottomRowSpaces = spaces;
+        }
+    }
+
+    private int getTiles(boolean top) {
+        return top ? this.topRowTiles : this.bottomRowTiles;
+    }
+
+    private void setTiles(boolean top, int tiles) {
+        if(top) {
+            this.topRowTiles = tiles;
+        } else {
+            this.bottomRowTiles = tiles;
+        }
+    }
+
+    private int getWidth(boolean top) {
+        return top ? this.topRowWidth : this.bottomRowWidth;
+    }
+
+    private void setWidth(boolean top, int width) {
+        if(top) {
+            this.topRowWidth = width;
+        } else {
+            this.bottomRowWidth = width;
+        }
+    }
+
+    public int getRowSize(boolean activeRow) {
+        // Number of tiles in a row. Each row has one more space than it has tiles.
+        return this.getWidth(this.isTop(activeRow));
+    }
+
+    public int getSpaceCount(boolean activeRow) {
+        return this.getRowSize(activeRow) + 1;
+    }
+
+    private int checkSpace(boolean top, int space) {
+        if(space < 0 || space > this.getWidth(top)) {
+            throw new IndexOutOfBoundsException("Space index out of bounds");
+        }
+        return space * SPACE_BITS;
+    }
+
+    private int checkTile(boolean top, int tile) {
+        if(tile < 0 || tile > this.getWidth(top) - 1) {
+            throw new IndexOutOfBoundsException("Tile index out of bounds");
+        }
+        return tile * TILE_BITS;
+    }
+
+    private int getCount(boolean top, int space, Color color) {
+        int shift = this.checkSpace(top, space) + color.ordinal() * COLOR_BITS;
+        return (int) (this.getSpaces(top) >>> shift) & COLOR_MAX;
+    }
+
+    private void setCount(boolean top, int space, Color color, int count) {
+        if(count < 0 || count > COLOR_MAX) {
+            throw new IllegalStateException("A space can hold between 0 and " + COLOR_MAX + " cubes of a color");
+        }
+        int shift = this.checkSpace(top, space) + color.ordinal() * COLOR_BITS;
+        int old = (int) (this.getSpaces(top) >>> shift) & COLOR_MAX;
+        long spaces = this.getSpaces(top) & ~((long) COLOR_MAX << shift);
+        this.setSpaces(top, spaces | ((long) count << shift));
+        this.key ^= Zobrist.spaceCount(top, space, color.ordinal(), old) ^
+                Zobrist.spaceCount(top, space, color.ordinal(), count);
+    }
+
+    public int getCubeCount(boolean activeRow, int space, Color color) {
+        return this.getCount(this.isTop(activeRow), space, color);
+    }
+
+    public int getCubeCount(boolean activeRow, int space) {
+        long packed = this.getSpaces(this.isTop(activeRow)) >>> this.checkSpace(this.isTop(activeRow), space);
+        int count = 0;
+        for(int c = 0; c < COLORS.length; c++) {
+            count += (int) (packed >>> (c * COLOR_BITS)) & COLOR_MAX;
+        }
+        return count;
+    }
+
+    public int getCubeCount(boolean activeRow) {
+        // Total cubes on a row
+        int count = 0;
+        for(int i = 0; i < this.getSpaceCount(activeRow); i++) {
+            count += this.getCubeCount(activeRow, i);
+        }
+        return count;
+    }
+
+    public int getColorMask(boolean activeRow, int space) {
+        // Bit n is set if a cube of the color with ordinal n is on the space
+        long packed = this.getSpaces(this.isTop(activeRow)) >>> this.checkSpace(this.isTop(activeRow), space);
+        int mask = 0;
+        for(int c = 0; c < COLORS.length; c++) {
+            if(((packed >>> (c * COLOR_BITS)) & COLOR_MAX) != 0) {
+                mask |= 1 << c;
+            }
+        }
+        return mask;
+    }
+
+    public void addCubes(boolean activeRow, int space, Color color, int n) {
+        boolean top = this.isTop(activeRow);
+        this.setCount(top, space, color, this.getCount(top, space, color) + n);
+    }
+
+    public void removeCubes(boolean activeRow, int space, Color color, int n) {
+        boolean top = this.isTop(activeRow);
+        this.setCount(top, space, color, this.getCount(top, space, color) - n);
+    }
+
+    public void clearSpace(boolean activeRow, int space) {
+        boolean top = this.isTop(activeRow);
+        for(Color color : COLORS) {
+            this.setCount(top, space, color, 0);
+        }
+    }
+
+    private List<Cube> getCubes(boolean top, int space) {
+        // Cubes on a space, in the order Space sorts them
+        List<Cube> cubes = new ArrayList<>();
+        for(Color color : Space.SORTED_COLORS) {
+            for(int i = this.getCount(top, space, color); i > 0; i--) {
+                cubes.add(Cube.of(color));
+            }
+        }
+        return cubes;
+    }
+
+    private boolean getTileFlag(boolean top, int tile, int flag) {
+        return ((this.getTiles(top) >>> this.checkTile(top, tile)) & flag) != 0;
+    }
+
+    private void setTileFlag(boolean top, int tile, int flag, boolean value) {
+        int shift = this.checkTile(top, tile);
+        if(this.getTileFlag(top, tile, flag) != value) {
+            this.setTiles(top, this.getTiles(top) ^ (flag << shift));
+            this.key ^= Zobrist.tileFlag(top, tile, Integer.numberOfTrailingZeros(flag));
+        }
+    }
+
+    public boolean isToken(boolean activeRow, int tile) {
+        return this.getTileFlag(this.isTop(activeRow), tile, TOKEN);
+    }
+
+    public boolean isTokenPresent(boolean activeRow, int tile) {
+        return this.getTileFlag(this.isTop(activeRow), tile, TOKEN_PRESENT);
+    }
+
+    public void setTokenPresent(boolean activeRow, int tile, boolean present) {
+        this.setTileFlag(this.isTop(activeRow), tile, TOKEN_PRESENT, present);
+    }
+
+    public boolean isCreaturePresent(boolean activeRow, int tile) {
+        return this.getTileFlag(this.isTop(activeRow), tile, CREATURE_PRESENT);
+    }
+
+    public void setCreaturePresent(boolean activeRow, int tile, boolean present) {
+        this.setTileFlag(this.isTop(activeRow), tile, CREATURE_PRESENT, present);
+    }
+
+    public int countTokensPresent(boolean topRow) {
+        int count = 0;
+        for(int i = 0; i < this.getWidth(topRow); i++) {
+            count += this.getTileFlag(topRow, i, TOKEN_PRESENT) ? 1 : 0;
+        }
+        return count;
+    }
+
+    // Views of rows as lists of Tile and Space. These write through to the board, but are only valid until tiles
+    // are added or an edge dropped.
+
     public List<Tile> getActiveRowTiles() {
-        return this.activeRowTiles;
+        return this.getRowTiles(true);
     }
 
     public List<Space> getActiveRowSpaces() {
-        return this.activeRowSpaces;
+        return this.getRowSpaces(true);
     }
 
     public List<Tile> getInactiveRowTiles() {
-        return this.activeRowTiles == this.bottomRowTiles ? this.topRowTiles : this.bottomRowTiles;
+        return this.getRowTiles(false);
     }
 
     public List<Space> getInactiveRowSpaces() {
-        return this.activeRowSpaces == this.bottomRowSpaces ? this.topRowSpaces : this.bottomRowSpaces;
+        return this.getRowSpaces(false);
     }
 
     public List<Tile> getRowTiles(boolean activeRow) {
-        return activeRow ? this.getActiveRowTiles() : this.getInactiveRowTiles();
+        return this.tileViews(this.isTop(activeRow));
     }
 
     public List<Space> getRowSpaces(boolean activeRow) {
-        return activeRow ? this.getActiveRowSpaces() : this.getInactiveRowSpaces();
+        return this.spaceViews(this.isTop(activeRow));
+    }
+
+    private List<Tile> tileViews(boolean top) {
+        return IntStream.range(0, this.getWidth(top))
+                .mapToObj(i -> new TileView(this, top, i))
+                .collect(Collectors.toList());
+    }
+
+    private List<Space> spaceViews(boolean top) {
+        return IntStream.range(0, this.getWidth(top) + 1)
+                .mapToObj(i -> new SpaceView(this, top, i))
+                .collect(Collectors.toList());
     }
 
     public Tile getTile(boolean activeRow, int tile) throws IndexOutOfBoundsException {
-        List<Tile> row = this.getRowTiles(activeRow);
-        if(tile < 0 || tile > row.size()-1) {
-            throw new IndexOutOfBoundsException("Tile index out of bounds");
-        }
-        return row.get(tile);
+        this.checkTile(this.isTop(activeRow), tile);
+        return new TileView(this, this.isTop(activeRow), tile);
     }
 
     public Space getSpace(boolean activeRow, int space) {
-        List<Space> row = this.getRowSpaces(activeRow);
-        if(space < 0 || space > row.size()-1) {
-            throw new IndexOutOfBoundsException("Space index out of bounds");
-        }
-        return row.get(space);
+        this.checkSpace(this.isTop(activeRow), space);
+        return new SpaceView(this, this.isTop(activeRow), space);
     }
 
     public List<Space> getSpacesAdjacent(boolean activeRow, int tileIdx) {
         return Arrays.asList(this.getSpace(activeRow, tileIdx), this.getSpace(activeRow, tileIdx+1));
     }
 
+    public int getColorMaskAdjacent(boolean activeRow, int tile) {
+        return this.getColorMask(activeRow, tile) | this.getColorMask(activeRow, tile + 1);
+    }
+
     public Set<Color> getColorAdjacent(boolean activeRow, int tile) {
-        return this.colorUnion(this.getSpacesAdjacent(activeRow, tile));
+        return Board.colorSet(this.getColorMaskAdjacent(activeRow, tile));
     }
 
     public int getNumberAdjacent(boolean activeRow, int tileIdx) {
-        return this.getSpacesAdjacent(activeRow, tileIdx).stream().mapToInt(Space::getCubeCount).sum();
+        return this.getCubeCount(activeRow, tileIdx) + this.getCubeCount(activeRow, tileIdx + 1);
+    }
+
+    public static Set<Color> colorSet(int mask) {
+        Set<Color> colors = EnumSet.noneOf(Color.class);
+        for(Color color : COLORS) {
+            if((mask >> color.ordinal() & 1) == 1) {
+                colors.add(color);
+            }
+        }
+        return colors;
+    }
+
+    public static int colorMask(Set<Color> colors) {
+        int mask = 0;
+        for(Color color : colors) {
+            mask |= 1 << color.ordinal();
+        }
+        return mask;
     }
 
     public List<Tile> getTopRowTiles() {
-        return topRowTiles;
+        return this.tileViews(true);
     }
 
     public void setTopRowTiles(List<Tile> topRowTiles) {
-        this.topRowTiles = topRowTiles;
+        this.packTiles(true, topRowTiles);
     }
 
     public List<Tile> getBottomRowTiles() {
-        return bottomRowTiles;
+        return this.tileViews(false);
     }
 
     public void setBottomRowTiles(List<Tile> bottomRowTiles) {
-        this.bottomRowTiles = bottomRowTiles;
+        this.packTiles(false, bottomRowTiles);
     }
 
     public List<Space> getTopRowSpaces() {
-        return topRowSpaces;
+        return this.spaceViews(true);
     }
 
     public void setTopRowSpaces(List<Space> topRowSpaces) {
-        this.topRowSpaces = topRowSpaces;
+        this.packSpaces(true, topRowSpaces);
     }
 
     public List<Space> getBottomRowSpaces() {
-        return bottomRowSpaces;
+        return this.spaceViews(false);
     }
 
     public void setBottomRowSpaces(List<Space> bottomRowSpaces) {
-        this.bottomRowSpaces = bottomRowSpaces;
+        this.packSpaces(false, bottomRowSpaces);
     }
 
-    public int size() {
-        return this.getActiveRowTiles().size() + this.getInactiveRowTiles().size();
+    private void packTiles(boolean top, List<Tile> tiles) {
+        int packed = 0;
+        for(int i = 0; i < tiles.size(); i++) {
+            packed |= Board.tileFlags(tiles.get(i)) << (i * TILE_BITS);
+        }
+        this.setTiles(top, packed);
+        this.setWidth(top, tiles.size());
+        this.key = this.computeKey();
+    }
+
+    private void packSpaces(boolean top, List<Space> spaces) {
+        // Row is sized by its tiles, so spaces beyond the last tile are ignored
+        this.setSpaces(top, 0L);
+        this.key = this.computeKey();
+        for(int i = 0; i < Math.min(spaces.size(), this.getWidth(top) + 1); i++) {
+            for(Cube cube : spaces.get(i).getCubes()) {
+                this.setCount(top, i, cube.getColor(), this.getCount(top, i, cube.getColor()) + 1);
+            }
+        }
     }
 
-    private Set<Color> colorUnion(List<Space> spaces) {
-        return spaces.stream().map(Space::getColors).flatMap(Collection::stream).collect(Collectors.toSet());
+    public int size() {
+        return this.topRowWidth + this.bottomRowWidth;
     }
 
     private void toggleRows() {
-        this.activeRowTiles = this.getInactiveRowTiles();
-        this.activeRowSpaces = this.getInactiveRowSpaces();
+        this.topRowActive = !this.topRowActive;
+        this.key ^= Zobrist.topRowActive();
+    }
+
+    public long getKey() {
+        return this.key;
+    }
+
+    private long computeKey() {
+        // Build the key of the whole board. Used when rows shift, as every space and tile changes position.
+        long key = this.topRowActive ? Zobrist.topRowActive() : 0L;
+        for(boolean top : new boolean[] {true, false}) {
+            key ^= Zobrist.rowWidth(top, this.getWidth(top));
+            for(int space = 0; space <= this.getWidth(top); space++) {
+                for(Color color : COLORS) {
+                    key ^= Zobrist.spaceCount(top, space, color.ordinal(), this.getCount(top, space, color));
+                }
+            }
+            for(int tile = 0; tile < this.getWidth(top); tile++) {
+                for(int flag = 0; flag < TILE_BITS; flag++) {
+                    if(this.getTileFlag(top, tile, 1 << flag)) {
+                        key ^= Zobrist.tileFlag(top, tile, flag);
+                    }
+                }
+            }
+        }
+        return key;
     }
 
     public List<Cube> dropEdge(Board.Side side) {
-        List<Space> spaces = new ArrayList<>();
-        List<Tile> tiles = new ArrayList<>();
-        if(side == Side.LEFT) {
-            spaces = Arrays.asList(this.topRowSpaces.get(0), this.bottomRowSpaces.get(0));
-            tiles = Arrays.asList(this.topRowTiles.get(0), this.bottomRowTiles.get(0));
-            this.topRowSpaces.remove(0);
-            this.topRowTiles.remove(0);
-            this.bottomRowTiles.remove(0);
-            this.bottomRowSpaces.remove(0);
-        } else {
-            spaces = Stream.of(this.topRowSpaces, this.bottomRowSpaces)
-                    .map(r -> r.get(r.size()-1))
-                    .collect(Collectors.toList());
-            tiles = Stream.of(this.topRowTiles, this.bottomRowTiles)
-                    .map(r -> r.get(r.size()-1))
-                    .collect(Collectors.toList());
-            this.topRowSpaces.remove(this.topRowSpaces.size()-1);
-            this.topRowTiles.remove(this.topRowTiles.size()-1);
-            this.bottomRowSpaces.remove(this.bottomRowSpaces.size()-1);
-            this.bottomRowTiles.remove(this.bottomRowTiles.size()-1);
-        }
-        return spaces.stream()
-                .flatMap(s -> s.getCubes().stream())
-                .collect(Collectors.toList());
+        // Remove the tile and space at one edge of both rows, returning the cubes which were on the spaces
+        List<Cube> dropped = new ArrayList<>();
+        for(boolean top : new boolean[] {true, false}) {
+            int width = this.getWidth(top);
+            if(side == Side.LEFT) {
+                dropped.addAll(this.getCubes(top, 0));
+                this.setSpaces(top, this.getSpaces(top) >>> SPACE_BITS);
+                this.setTiles(top, this.getTiles(top) >>> TILE_BITS);
+            } else {
+                dropped.addAll(this.getCubes(top, width));
+                this.setSpaces(top, this.getSpaces(top) & ~(((1L << SPACE_BITS) - 1) << (width * SPACE_BITS)));
+                this.setTiles(top, this.getTiles(top) & ~(((1 << TILE_BITS) - 1) << ((width - 1) * TILE_BITS)));
+            }
+            this.setWidth(top, width - 1);
+        }
+        this.key = this.computeKey();
+        return dropped;
     }
 
     public void addTiles(Tile left, Tile right) {
-        this.activeRowTiles.add(0, left);
-        this.activeRowTiles.add(right);
-        this.activeRowSpaces.add(0, new Space());
-        this.activeRowSpaces.add(new Space());
+        // Add a tile and empty space at both ends of the active row, which then becomes inactive
+        boolean top = this.isTop(true);
+        int width = this.getWidth(top);
+        if((width + 3) * SPACE_BITS > Long.SIZE) {
+            throw new IllegalStateException("Board rows cannot have more than " + Long.SIZE / SPACE_BITS + " spaces");
+        }
+        this.setSpaces(top, this.getSpaces(top) << SPACE_BITS);
+        this.setTiles(top, (this.getTiles(top) << TILE_BITS) | Board.tileFlags(left) |
+                (Board.tileFlags(right) << ((width + 1) * TILE_BITS)));
+        this.setWidth(top, width + 2);
+        this.key = this.computeKey();
         this.toggleRows();
     }
 
+    public int getActivePresence() {
+        // Mask of the active row tiles the creature is present on
+        return this.getPresence(this.isTop(true));
+    }
+
+    public int getInactivePresence() {
+        // Mask of the inactive row tiles the creature is present on
+        return this.getPresence(this.isTop(false));
+    }
+
+    private int getPresence(boolean top) {
+        int presence = 0;
+        for(int i = 0; i < this.getWidth(top); i++) {
+            if(this.getTileFlag(top, i, CREATURE_PRESENT)) {
+                presence |= 1 << i;
+            }
+        }
+        return presence;
+    }
+
     public Set<Integer> getTilesAdjacentToCreature() {
-        Set<Integer> adjacent = new HashSet<>(this.getTilesWithCreature());
-        adjacent.addAll(adjacent.stream().map(i -> i + 1).collect(Collectors.toList()));
+        Set<Integer> adjacent = new HashSet<>();
+        int mask = this.getAdjacentMask();
+        for(int i = 0; i < this.getRowSize(false); i++) {
+            if((mask >> i & 1) == 1) {
+                adjacent.add(i);
+            }
+        }
         return adjacent;
     }
 
+    private int getAdjacentMask() {
+        // Inactive tiles i and i+1 are adjacent to active tile i
+        int presence = this.getActivePresence();
+        return presence | (presence << 1);
+    }
+
     public List<Integer> getTilesWithCreature() {
         // Work out which tiles have creature presence
-        List<Integer> presence = IntStream.range(0, this.getActiveRowTiles().size())
-                .mapToObj(Integer::new)
-                .filter(i -> this.getActiveRowTiles().get(i).isCreaturePresent())
+        int presence = this.getActivePresence();
+        return IntStream.range(0, this.getRowSize(true))
+                .filter(i -> (presence >> i & 1) == 1)
+                .boxed()
                 .collect(Collectors.toList());
-        return presence;
     }
 
     public void moveToNumber(final int number) {
         // Move creature presence to inactive row tile meeting certain criteria
-        // Work out which tiles have creature presence
-        List<Integer> presence = this.getTilesWithCreature();
-        // Inactive spaces which are equal to or +1 are adjacent
-        Set<Integer> adjacent = this.getTilesAdjacentToCreature();
-        // Filter adjacent spaces to those meeting the number requirements, and set present there
-        adjacent.stream().filter(i -> this.getNumberAdjacent(false, i) == number)
-                .forEach(i -> this.getInactiveRowTiles().get(i).setCreaturePresent(true));
-        // Remove creature presence from the active row
-        presence.forEach(i -> this.getActiveRowTiles().get(i).setCreaturePresent(false));
+        this.moveCreatureTo(this.getInactivePresence() | this.numberTargets(number));
     }
 
     public void moveToColor(final Set<Color> colors) {
-        List<Integer> presence = this.getTilesWithCreature();
-        Set<Integer> adjacent = this.getTilesAdjacentToCreature();
-        adjacent.stream().filter(i -> this.getColorAdjacent(false, i).equals(colors))
-                .forEach(i -> this.getInactiveRowTiles().get(i).setCreaturePresent(true));
-        presence.forEach(i -> this.getActiveRowTiles().get(i).setCreaturePresent(false));
+        this.moveCreatureTo(this.getInactivePresence() | this.colorTargets(colors));
+    }
+
+    public int numberTargets(final int number) {
+        // Inactive spaces which are equal to or +1 are adjacent. Return as a mask of inactive tile indices those
+        // adjacent tiles meeting the number requirement.
+        int adjacent = this.getAdjacentMask();
+        int targets = 0;
+        for(int i = 0; i < this.getRowSize(false); i++) {
+            if((adjacent >> i & 1) == 1 && this.getNumberAdjacent(false, i) == number) {
+                targets |= 1 << i;
+            }
+        }
+        return targets;
+    }
+
+    public int colorTargets(final Set<Color> colors) {
+        return this.colorTargets(Board.colorMask(colors));
+    }
+
+    public int colorTargets(final int colorMask) {
+        // As numberTargets, for tiles adjacent to exactly the given colors
+        int adjacent = this.getAdjacentMask();
+        int targets = 0;
+        for(int i = 0; i < this.getRowSize(false); i++) {
+            if((adjacent >> i & 1) == 1 && this.getColorMaskAdjacent(false, i) == colorMask) {
+                targets |= 1 << i;
+            }
+        }
+        return targets;
+    }
+
+    public void moveCreatureTo(final int presence) {
+        // Set creature presence on the inactive row to the given mask, and remove it from the active row
+        for(int i = 0; i < this.getRowSize(false); i++) {
+            this.setCreaturePresent(false, i, (presence >> i & 1) == 1);
+        }
+        for(int i = 0; i < this.getRowSize(true); i++) {
+            this.setCreaturePresent(true, i, false);
+        }
     }
 
     public List<Tile> getSideTiles(final Board.Side side) {
         List<Tile> tiles = new ArrayList<>();
         if(side == Side.LEFT) {
-            tiles.add(this.getInactiveRowTiles().get(0));
-            tiles.add(this.getActiveRowTiles().get(0));
+            tiles.add(this.getTile(false, 0));
+            tiles.add(this.getTile(true, 0));
         } else {
-            tiles.add(this.getInactiveRowTiles().get(this.getInactiveRowTiles().size()-1));
-            tiles.add(this.getActiveRowTiles().get(this.getActiveRowTiles().size() - 1));
+            tiles.add(this.getTile(false, this.getRowSize(false) - 1));
+            tiles.add(this.getTile(true, this.getRowSize(true) - 1));
         }
         return tiles;
     }
 
+    public int takeSideTokens(final Board.Side side) {
+        // Remove any tokens from the tiles at one edge, returning how many were taken
+        int taken = 0;
+        for(boolean activeRow : new boolean[] {false, true}) {
+            int tile = side == Side.LEFT ? 0 : this.getRowSize(activeRow) - 1;
+            if(this.isTokenPresent(activeRow, tile)) {
+                this.setTokenPresent(activeRow, tile, false);
+                taken++;
+            }
+        }
+        return taken;
+    }
+
     public List<Integer> getCreatureTokens() {
         // Return index of tiles which have both creature presence and tokens
-        return IntStream.range(0, this.getInactiveRowTiles().size())
-                .filter(i -> {
-                    Tile tile = this.getInactiveRowTiles().get(i);
-                    return tile.isCreaturePresent() && tile.isTokenPresent();
-                }).mapToObj(Integer::new).collect(Collectors.toList());
+        return IntStream.range(0, this.getRowSize(false))
+                .filter(i -> this.isCreaturePresent(false, i) && this.isTokenPresent(false, i))
+                .boxed()
+                .collect(Collectors.toList());
     }
 
     private String tileString(boolean activeRow, int tileIdx) {
-        Tile tile = (activeRow ? this.getActiveRowTiles() : this.getInactiveRowTiles()).get(tileIdx);
+        Tile tile = this.getTile(activeRow, tileIdx);
         return this.getColorAdjacent(activeRow, tileIdx).stream()
                         .map(c -> String.valueOf(c.toString().charAt(0)))
                         .sorted(Comparator.comparing(c -> c.toString()))
@@ -271,10 +618,7 @@ public class Board {
 
     private List<String> rowToStrings(boolean topRow) {
         // Is this active row?
-        boolean activeRow = false;
-        if((this.getTopRowTiles() == this.getActiveRowTiles()) == topRow) {
-            activeRow = true;
-        }
+        boolean activeRow = this.topRowActive == topRow;
         List<Tile> tiles = this.getRowTiles(activeRow);
         List<Space> spaces = this.getRowSpaces(activeRow);
         List<String> rowStrings = new ArrayList<>();
@@ -329,25 +673,110 @@ public class Board {
 
         Board board = (Board) o;
 
-        return new EqualsBuilder()
-                .append(this.topRowSpaces, board.topRowSpaces)
-                .append(this.topRowTiles, board.topRowTiles)
-                .append(this.bottomRowSpaces, board.bottomRowSpaces)
-                .append(this.bottomRowTiles, board.bottomRowTiles)
-                .append(this.activeRowTiles == this.topRowTiles, board.activeRowTiles == board.topRowTiles)
-                .append(this.maxWidth, board.maxWidth)
-                .isEquals();
+        // Boards with different keys differ, so only compare fields when keys match
+        return this.key == board.key &&
+                this.topRowSpaces == board.topRowSpaces &&
+                this.bottomRowSpaces == board.bottomRowSpaces &&
+                this.topRowTiles == board.topRowTiles &&
+                this.bottomRowTiles == board.bottomRowTiles &&
+                this.topRowWidth == board.topRowWidth &&
+                this.bottomRowWidth == board.bottomRowWidth &&
+                this.topRowActive == board.topRowActive &&
+                this.maxWidth == board.maxWidth;
     }
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder(17, 37)
-                .append(this.topRowSpaces)
-                .append(this.topRowTiles)
-                .append(this.bottomRowSpaces)
-                .append(this.bottomRowTiles)
-                .append(this.activeRowTiles == this.topRowTiles)
-                .append(this.maxWidth)
-                .toHashCode();
+        return Long.hashCode(this.key);
+    }
+
+    private static class SpaceView extends Space {
+        // A space on a board, reading and writing the board's packed counts
+        private final Board board;
+        private final boolean top;
+        private final int idx;
+
+        private SpaceView(Board board, boolean top, int idx) {
+            this.board = board;
+            this.top = top;
+            this.idx = idx;
+        }
+
+        @Override
+        public int getCubeCount() {
+            return this.board.getCubeCount(this.board.topRowActive == this.top, this.idx);
+        }
+
+        @Override
+        public int getCubeCount(Color color) {
+            return this.board.getCount(this.top, this.idx, color);
+        }
+
+        @Override
+        public Set<Color> getColors() {
+            return Board.colorSet(this.board.getColorMask(this.board.topRowActive == this.top, this.idx));
+        }
+
+        @Override
+        public void addCubes(Collection<Cube> cubes) {
+            if(!Objects.isNull(cubes)) {
+                cubes.forEach(c -> this.board.setCount(this.top, this.idx, c.getColor(),
+                        this.board.getCount(this.top, this.idx, c.getColor()) + 1));
+            }
+        }
+
+        @Override
+        public void removeCube(Cube cube) {
+            // As for a list, removing a cube which is not present does nothing
+            int count = this.board.getCount(this.top, this.idx, cube.getColor());
+            if(count > 0) {
+                this.board.setCount(this.top, this.idx, cube.getColor(), count - 1);
+            }
+        }
+
+        @Override
+        public void clearCubes() {
+            this.board.clearSpace(this.board.topRowActive == this.top, this.idx);
+        }
+
+        @Override
+        public List<Cube> getCubes() {
+            return this.board.getCubes(this.top, this.idx);
+        }
+
+        @Override
+        public void setCubes(List<Cube> cubes) {
+            this.clearCubes();
+            this.addCubes(cubes);
+        }
+    }
+
+    private static class TileView extends Tile {
+        // A tile on a board, reading the board's packed flags
+        private final Board board;
+        private final boolean top;
+        private final int idx;
+
+        private TileView(Board board, boolean top, int idx) {
+            super(board.getTileFlag(top, idx, TOKEN));
+            this.board = board;
+            this.top = top;
+            this.idx = idx;
+        }
+
+        @Override
+        public boolean isToken() {
+            return this.board.getTileFlag(this.top, this.idx, TOKEN);
+        }
+
+        @Override
+        public boolean isTokenPresent() {
+            return this.board.getTileFlag(this.top, this.idx, TOKEN_PRESENT);
+        }
+
+        @Override
+        public boolean isCreaturePresent() {
+            return this.board.getTileFlag(this.top, this.idx, CREATURE_PRESENT);
+        }
     }
 }
@@ -1,43 +1,49 @@
-import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.SplittableRandom;
 
 public abstract class Card {
-    protected abstract Set<Board> getPossibleMoves(Board currentBoard);
-
-    protected abstract Card makeCopy();
-
-    protected Set<Board> getUniqueMoves(Board currentBoard) {
-        // Eliminate duplicated moves (different blue cubes being moved but ending up in same configuration)
-        Set<Board> possBoards = this.getPossibleMoves(currentBoard);
-        Set<Board> distinctBoards = new HashSet<>(possBoards.stream()
-                .collect(Collectors.toMap(b -> b.toString(), b -> b))
-                .values());
-        return distinctBoards;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-
-        if (o == null || getClass() != o.getClass()) return false;
-
-        Card card = (Card) o;
-
-        return new EqualsBuilder()
-                .append(this.toString(), card.toString())
-                .isEquals();
+    /***
+     * A kind of card. Cards hold no state beyond their kind, so there is one shared card of each kind, and cards are
+     * equal only if they are the same card. Decks, hands and discard piles of every copy of a game share them.
+     */
+
+    // Add the id of every move this card could make on the board to moves. Each id is prefix with the card's own
+    // argument for the move in the low bits. Moves which would leave the same board are listed once.
+    protected abstract void listMoves(Board currentBoard, long prefix, MoveList moves);
+
+    // Number of distinct moves listMoves would add
+    protected abstract long countMoves(Board currentBoard);
+
+    // One of the distinct moves listMoves would add, chosen uniformly, without listing the others
+    protected abstract long sampleMove(Board currentBoard, long prefix, SplittableRandom random);
+
+    // Make the move described by argument, modifying the board in place
+    protected abstract void applyMove(Board board, long argument);
+
+    // Identifies the kind of card in a packed Move
+    protected abstract int getCardId();
+
+    protected Set<Board> getPossibleMoves(Board currentBoard) {
+        // Build the board resulting from each move this card could make
+        MoveList moves = new MoveList();
+        this.listMoves(currentBoard, 0L, moves);
+        Set<Board> boards = new HashSet<>();
+        for(int i = 0; i < moves.size(); i++) {
+            Board board = new Board(currentBoard);
+            this.applyMove(board, Move.argument(moves.get(i)));
+            boards.add(board);
+        }
+        return boards;
     }
 
     @Override
     public int hashCode() {
+        // Decks key their cards by hash code, so it depends only on the kind of card to be the same from run to run
         return new HashCodeBuilder(17, 37)
-                .append(this.toString())
+                .append(this.getCardId())
                 .toHashCode();
     }
 }
@@ -0,0 +1,128 @@
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentTreeNode extends TreeNode {
+    /***
+     * Node in an ISMCTS game tree which many search threads can descend at once.
+     * Statistics are atomic counters, and children are held in a copy-on-write list so readers never lock.
+     * A thread passing through a node applies a virtual loss to it, making other threads less likely to follow
+     * the same path until the result of its playout has been backpropagated.
+     */
+    private final AtomicInteger wins;
+    private final AtomicInteger visits;
+    private final AtomicInteger avails;
+    private final AtomicInteger virtualLoss;
+
+    public ConcurrentTreeNode(long move, TreeNode parent, PlayerType justMoved, double exploration) {
+        super(move, parent, justMoved, exploration);
+        this.setChildren(new CopyOnWriteArrayList<>());
+        this.wins = new AtomicInteger(0);
+        this.visits = new AtomicInteger(0);
+        this.avails = new AtomicInteger(1);
+        this.virtualLoss = new AtomicInteger(0);
+    }
+
+    @Override
+    public int getWins() {
+        return wins.get();
+    }
+
+    @Override
+    public void setWins(int wins) {
+        this.wins.set(wins);
+    }
+
+    @Override
+    public int getVisits() {
+        return visits.get();
+    }
+
+    @Override
+    public void setVisits(int visits) {
+        this.visits.set(visits);
+    }
+
+    @Override
+    public int getAvails() {
+        return avails.get();
+    }
+
+    @Override
+    public void setAvails(int avails) {
+        this.avails.set(avails);
+    }
+
+    public int getVirtualLoss() {
+        return virtualLoss.get();
+    }
+
+    @Override
+    public TreeNode selectChild(long[] legalMoves) {
+        // Select a legal child by UCB1, counting in-flight descents as losses
+        ConcurrentTreeNode selected = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for(TreeNode node : this.getChildren()) {
+            if(Arrays.binarySearch(legalMoves, node.getMove()) < 0) {
+                continue;
+            }
+            ConcurrentTreeNode child = (ConcurrentTreeNode) node;
+            double score = child.ucbScore();
+            if(Objects.isNull(selected) || score > bestScore) {
+                selected = child;
+                bestScore = score;
+            }
+            child.avails.incrementAndGet();
+        }
+        if(!Objects.isNull(selected)) {
+            selected.virtualLoss.incrementAndGet();
+        }
+        return selected;
+    }
+
+    @Override
+    public double ucbScore() {
+        // Virtual losses count as visits which did not win
+        double visits = this.getVisits() + this.getVirtualLoss();
+        return this.getWins() / visits + (this.getExploration() *
+                Math.sqrt(Math.log(this.getAvails()) / visits));
+    }
+
+    @Override
+    public TreeNode addChild(long move, PlayerType justMoved) {
+        // Another thread may have expanded the same move since the untried moves were worked out, in which case
+        // descend into its child rather than adding a duplicate
+        synchronized (this) {
+            for(TreeNode node : this.getChildren()) {
+                if(node.getMove() == move) {
+                    ((ConcurrentTreeNode) node).virtualLoss.incrementAndGet();
+                    return node;
+                }
+            }
+            ConcurrentTreeNode child = (ConcurrentTreeNode) this.makeChild(move, justMoved);
+            child.virtualLoss.incrementAndGet();
+            this.getChildren().add(child);
+            return child;
+        }
+    }
+
+    @Override
+    protected TreeNode makeChild(long move, PlayerType justMoved) {
+        return new ConcurrentTreeNode(move, this, justMoved, this.getExploration());
+    }
+
+    @Override
+    public void update(GameState terminalState) {
+        // Every node below the root had a virtual loss applied on the way down, remove it now the real result
+        // is known
+        this.visits.incrementAndGet();
+        if((this.getJustMoved() == PlayerType.SCIENTIST && terminalState == GameState.SCIENTIST_WIN) ||
+                (this.getJustMoved() == PlayerType.CREATURE && terminalState == GameState.CREATURE_WIN)) {
+            this.wins.incrementAndGet();
+        }
+        if(!Objects.isNull(this.getParent())) {
+            this.virtualLoss.decrementAndGet();
+        }
+    }
+}
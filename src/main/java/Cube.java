@@ -1,15 +1,21 @@
-import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
-public class Cube implements Comparable<Cube> {
-    private Color color;
+import java.util.Arrays;
 
-    public Cube(Color color) {
+public class Cube implements Comparable<Cube> {
+    /***
+     * A cube of one color. Cubes of a color are interchangeable, so there is one shared cube of each color, got with
+     * of, and cubes are equal only if they are the same cube.
+     */
+    private static final Cube[] CUBES = Arrays.stream(Color.values()).map(Cube::new).toArray(Cube[]::new);
+    private final Color color;
+
+    private Cube(Color color) {
         this.color = color;
     }
 
-    public Cube(Cube cube) {
-        this.color = cube.color;
+    public static Cube of(Color color) {
+        return CUBES[color.ordinal()];
     }
 
     public Color getColor() {
@@ -23,20 +29,6 @@ public class Cube implements Comparable<Cube> {
                 ']';
     }
 
-    @Override
-    public boolean equals(Object o) {
-        // Consider two cubes of the same color to be equal
-        if (this == o) return true;
-
-        if (o == null || getClass() != o.getClass()) return false;
-
-        Cube cube = (Cube) o;
-
-        return new EqualsBuilder()
-                .append(color, cube.color)
-                .isEquals();
-    }
-
     @Override
     public int hashCode() {
         return new HashCodeBuilder(17, 37)
@@ -46,6 +38,7 @@ public class Cube implements Comparable<Cube> {
 
     @Override
     public int compareTo(Cube cube) {
-        return this.toString().compareTo(cube.toString());
+        // Ordered by the name of their color
+        return this.color.name().compareTo(cube.color.name());
     }
 }
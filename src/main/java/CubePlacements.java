@@ -0,0 +1,105 @@
+import java.util.SplittableRandom;
+import java.util.function.LongConsumer;
+
+public class CubePlacements {
+    /***
+     * The distinct ways of placing a handful of cubes on a row of spaces. Cubes of a color are interchangeable, so a
+     * placement is how many cubes of each color go to each space, and the ways of placing n cubes of one color on k
+     * spaces are the C(n + k - 1, k - 1) ways of splitting n into k parts. The placements of several colors are every
+     * combination of a split for each.
+     * A placement packs into a long as Board packs spaces: 12 bits per space from the left, and within a space 4 bits
+     * holding the count of each color (by ordinal). The last space is left out, taking whatever cubes are left, so a
+     * row of up to 5 spaces fits in a move argument.
+     */
+    public static final int MAX_SPACES = 5;
+    private static final int COLOR_BITS = 4;
+    private static final int SPACE_BITS = 12;
+    private static final int COLOR_MAX = (1 << COLOR_BITS) - 1;
+    private static final Color[] COLORS = Color.values();
+
+    private CubePlacements() {
+    }
+
+    public static long count(int[] cubes, int spaces) {
+        // Number of distinct placements of cubes, counts by color ordinal, on spaces
+        CubePlacements.checkSpaces(spaces);
+        long count = 1;
+        for(int n : cubes) {
+            count *= CubePlacements.binomial(n + spaces - 1, spaces - 1);
+        }
+        return count;
+    }
+
+    public static void forEach(int[] cubes, int spaces, LongConsumer action) {
+        // Pass every distinct placement to action once, in no particular order, without holding them all
+        CubePlacements.checkSpaces(spaces);
+        CubePlacements.place(0, cubes.clone(), spaces, 0L, action);
+    }
+
+    private static void place(int slot, int[] remaining, int spaces, long placement, LongConsumer action) {
+        // Choose how many cubes of a color go to one space, slot by slot through the spaces but the last
+        if(slot == (spaces - 1) * COLORS.length) {
+            action.accept(placement);
+            return;
+        }
+        int color = slot % COLORS.length;
+        int shift = slot / COLORS.length * SPACE_BITS + color * COLOR_BITS;
+        int available = remaining[color];
+        for(int n = 0; n <= available; n++) {
+            remaining[color] = available - n;
+            CubePlacements.place(slot + 1, remaining, spaces, placement | ((long) n << shift), action);
+        }
+        remaining[color] = available;
+    }
+
+    public static long sample(int[] cubes, int spaces, SplittableRandom random) {
+        // One placement drawn uniformly from the distinct placements. Each color's split is drawn uniformly on its
+        // own, as a choice of where the k - 1 bars go among n cubes and bars.
+        CubePlacements.checkSpaces(spaces);
+        long placement = 0L;
+        for(int c = 0; c < COLORS.length; c++) {
+            int bars = spaces - 1;
+            int positions = cubes[c] + bars;
+            int space = 0;
+            int count = 0;
+            for(int p = 0; p < positions && space < spaces - 1; p++) {
+                if(random.nextInt(positions - p) < bars) {
+                    // A bar, so move on to the next space
+                    placement |= (long) count << (space * SPACE_BITS + c * COLOR_BITS);
+                    space++;
+                    count = 0;
+                    bars--;
+                } else {
+                    count++;
+                }
+            }
+        }
+        return placement;
+    }
+
+    public static int placed(long placement, int[] cubes, int spaces, int space, Color color) {
+        // How many cubes of a color a placement puts on a space
+        if(space < spaces - 1) {
+            return (int) (placement >>> (space * SPACE_BITS + color.ordinal() * COLOR_BITS)) & COLOR_MAX;
+        }
+        int rest = cubes[color.ordinal()];
+        for(int s = 0; s < spaces - 1; s++) {
+            rest -= CubePlacements.placed(placement, cubes, spaces, s, color);
+        }
+        return rest;
+    }
+
+    private static long binomial(int n, int k) {
+        long result = 1;
+        for(int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+
+    private static void checkSpaces(int spaces) {
+        if(spaces < 1 || spaces > MAX_SPACES) {
+            throw new IllegalArgumentException("Cubes can only be placed on 1 to " + MAX_SPACES + " spaces");
+        }
+    }
+}
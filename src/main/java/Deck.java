@@ -1,13 +1,17 @@
 import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public class Deck<T> {
+    // Items and discards are only changed through the deck, so its key stays up to date. Items must not change in a
+    // way that alters their hash code while they are in a deck.
     private List<T> items;
     private List<T> discard;
+    // Zobrist key of each pile. A pile adds the key of every item in it, which makes the key independent of order,
+    // so shuffles leave it unchanged and drawing, adding or discarding an item changes it in constant time.
+    private long itemsKey;
+    private long discardKey;
 
     public Deck() {
         this.items = new ArrayList<>();
@@ -16,52 +20,99 @@ public class Deck<T> {
 
     public Deck(Collection<T> add) {
         this();
-        this.items.addAll(add);
+        this.addToDeck(add);
     }
 
-    public Deck(Deck deck) {
+    public Deck(Deck<T> deck) {
         this();
-        this.items.addAll(deck.getItems());
-        this.discard.addAll(deck.getDiscard());
+        this.items.addAll(deck.items);
+        this.discard.addAll(deck.discard);
+        this.itemsKey = deck.itemsKey;
+        this.discardKey = deck.discardKey;
+    }
+
+    private static long itemKey(Object item, long pile) {
+        return Zobrist.mix(item.hashCode(), pile);
+    }
+
+    public long getKey() {
+        return this.itemsKey + this.discardKey;
+    }
+
+    public long getItemsKey() {
+        // Key of the items still in the deck, regardless of their order
+        return this.itemsKey;
+    }
+
+    public long getDiscardKey() {
+        return this.discardKey;
     }
 
-    public void shuffleDeck() {
-        Collections.shuffle(this.items);
+    public void shuffleDeck(SplittableRandom random) {
+        Deck.shuffle(this.items, random);
     }
 
-    public void shuffleDeckAndDiscards() {
-        this.items.addAll(this.discard);
+    public void shuffleDeckAndDiscards(SplittableRandom random) {
+        List<T> discards = this.discard;
         this.discard = new ArrayList<>();
-        this.shuffleDeck();
+        this.discardKey = 0;
+        this.addToDeck(discards);
+        this.shuffleDeck(random);
+    }
+
+    public static <E> void shuffle(List<E> list, SplittableRandom random) {
+        // Shuffle as Collections.shuffle does, but with the caller's generator rather than one shared by all threads
+        for(int i = list.size() - 1; i > 0; i--) {
+            Collections.swap(list, i, random.nextInt(i + 1));
+        }
     }
 
     public void addToDeck(Collection<T> add) {
         this.items.addAll(add);
+        add.forEach(a -> this.itemsKey += Deck.itemKey(a, Zobrist.DRAW_PILE));
     }
 
     public void addToDeck(T add) {
-        this.addToDeck(Arrays.asList(add));
+        this.items.add(add);
+        this.itemsKey += Deck.itemKey(add, Zobrist.DRAW_PILE);
     }
 
     public List<T> draw(int n) {
-        // Draw as many as possible
-        List<T> drawn = this.items.stream().limit(n).collect(Collectors.toList());
-        // Make a new list of items excluding those drawn. Cannot use removeAll, as cards / tiles of the same
-        // type are set to be equal, meaning it would remove all cards / tiles of that type
-        this.items = IntStream.range(n, this.items.size()).mapToObj(this.items::get).collect(Collectors.toList());
+        // Draw as many as possible, removing them from the top of the deck in place. Cannot use removeAll, as
+        // cards / tiles of the same type are set to be equal, meaning it would remove all cards / tiles of that type
+        List<T> top = this.items.subList(0, Math.min(n, this.items.size()));
+        List<T> drawn = new ArrayList<>(top);
+        top.clear();
+        drawn.forEach(d -> this.itemsKey -= Deck.itemKey(d, Zobrist.DRAW_PILE));
         return drawn;
     }
 
     public T draw() {
-        return this.draw(1).get(0);
+        if(this.items.size() == 0) {
+            throw new IndexOutOfBoundsException("Cannot draw from an empty deck");
+        }
+        T drawn = this.items.remove(0);
+        this.itemsKey -= Deck.itemKey(drawn, Zobrist.DRAW_PILE);
+        return drawn;
+    }
+
+    public boolean remove(T item) {
+        // Remove one item equal to the given item, wherever it is in the deck
+        boolean removed = this.items.remove(item);
+        if(removed) {
+            this.itemsKey -= Deck.itemKey(item, Zobrist.DRAW_PILE);
+        }
+        return removed;
     }
 
     public void discard(Collection<T> discards) {
         this.discard.addAll(discards);
+        discards.forEach(d -> this.discardKey += Deck.itemKey(d, Zobrist.DISCARD_PILE));
     }
 
     public void discard(T discard) {
-        this.discard(Arrays.asList(discard));
+        this.discard.add(discard);
+        this.discardKey += Deck.itemKey(discard, Zobrist.DISCARD_PILE);
     }
 
     public int size() {
@@ -69,19 +120,25 @@ public class Deck<T> {
     }
 
     public List<T> getItems() {
-        return this.items;
+        // Read only, change items through the deck
+        return Collections.unmodifiableList(this.items);
     }
 
     public void setItems(List<T> items) {
-        this.items = items;
+        this.itemsKey = 0;
+        this.items = new ArrayList<>();
+        this.addToDeck(items);
     }
 
     public List<T> getDiscard() {
-        return discard;
+        // Read only, change discards through the deck
+        return Collections.unmodifiableList(this.discard);
     }
 
     public void setDiscard(List<T> discard) {
-        this.discard = discard;
+        this.discardKey = 0;
+        this.discard = new ArrayList<>();
+        this.discard(discard);
     }
 
     @Override
@@ -100,6 +157,9 @@ public class Deck<T> {
 
         Deck<?> deck = (Deck<?>) o;
 
+        // Decks with different keys differ, so only compare items when keys match
+        if (this.getKey() != deck.getKey()) return false;
+
         return new EqualsBuilder()
                 .append(items, deck.items)
                 .append(discard, deck.discard)
@@ -108,9 +168,6 @@ public class Deck<T> {
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder(17, 37)
-                .append(items)
-                .append(discard)
-                .toHashCode();
+        return Long.hashCode(this.getKey());
     }
 }
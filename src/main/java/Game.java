@@ -1,5 +1,4 @@
 import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -15,8 +14,8 @@ public class Game {
             Color.ORANGE, Color.ORANGE, Color.GREEN));
     public static final List<Color> DEFUALT_RIGHTCUBES = new ArrayList<>(Arrays.asList(Color.BLUE, Color.BLUE,
             Color.ORANGE, Color.GREEN, Color.GREEN));
-    public static final List<Card> WILDCARDS = new ArrayList<>(Arrays.asList(new MoveOneCard(), new MoveAllCard(),
-            new SplitCard()));
+    public static final List<Card> WILDCARDS = Collections.unmodifiableList(Arrays.asList(MoveOneCard.INSTANCE,
+            MoveAllCard.INSTANCE, SplitCard.INSTANCE));
 
     // PROPERTIES
     private Player scientist;
@@ -27,36 +26,53 @@ public class Game {
     private GameState state;
     private List<Cube> droppedCubes;
     private Player firstPlayer;
-    private String lastMove;
+    private long lastMove;
+    // Moves made by applyMove to reach this game. Moves made in place are not recorded.
+    private History history;
+    // Rules the game was set up with. Copies of a game share them.
+    private Rules rules;
+    // Seed of the game's next chance event: a shuffle or the dealing of a determinization. Each event draws from a
+    // generator made from it, then moves it on, so a game played from a seed unfolds the same way each time. Being a
+    // single value, copies of a game and undo records hold it rather than sharing a generator.
+    private long randomState;
+
+    public Game(Rules rules, SplittableRandom random) {
+        // Create a new game with the given rules
+        rules.validate();
+        this.rules = rules;
+        this.scientist = new Player(rules.getScientist(), random);
+        this.creature = new Player(rules.getCreature(), random);
+        this.tiles = this.makeDeck(rules.getDeckSize(), rules.getBoardWidth(), rules.getTokenTiles(), random);
+        this.randomState = random.nextLong();
+        List<Cube> leftCube = rules.getCubes(Board.Side.LEFT).stream().map(Cube::of).collect(Collectors.toList());
+        List<Cube> rightCube = rules.getCubes(Board.Side.RIGHT).stream().map(Cube::of).collect(Collectors.toList());
+        this.board = new Board(rules.getBoardWidth(), tiles, leftCube, rightCube);
+        this.activePlayer = this.creature;
+        this.state = GameState.MOVE_CUBES;
+        this.droppedCubes = Collections.emptyList();
+        this.firstPlayer = this.creature;
+        this.lastMove = Move.NONE;
+    }
 
     public Game(PlayerType scientist, PlayerType creature, int boardWidth, int deckSize, int tokenTiles,
                 List<Color> leftCubes, List<Color> rightCubes) {
         // Create a new game with some specific settings
-        this.scientist = new Player(scientist);
-        this.creature = new Player(creature);
-        this.tiles = this.makeDeck(deckSize, boardWidth, tokenTiles);
-        List<Cube> leftCube = leftCubes.stream().map(Cube::new).collect(Collectors.toList());
-        List<Cube> rightCube = rightCubes.stream().map(Cube::new).collect(Collectors.toList());
-        this.board = new Board(boardWidth, tiles, leftCube, rightCube);
-        this.state = GameState.MOVE_CUBES;
-        this.droppedCubes = new ArrayList<>();
-        this.firstPlayer = this.creature;
-        this.lastMove = "";
+        this(new Rules(scientist, creature, boardWidth, deckSize, tokenTiles, leftCubes, rightCubes),
+                new SplittableRandom());
     }
 
-    public Game() {
+    public Game(SplittableRandom random) {
         // Make a default new game
-        this.scientist = new Player(Game.DEFAULT_SCIENTIST);
-        this.creature = new Player(Game.DEFAULT_CREATURE);
-        this.tiles = this.makeDeck(Game.DEFAULT_DECK_SIZE, Board.DEFAULT_MAX_WIDTH, Game.DEFAULT_TOKEN_TILES);
-        List<Cube> leftCube = Game.DEFAULT_LEFTCUBES.stream().map(Cube::new).collect(Collectors.toList());
-        List<Cube> rightCube = Game.DEFUALT_RIGHTCUBES.stream().map(Cube::new).collect(Collectors.toList());
-        this.board = new Board(tiles, leftCube, rightCube);
-        this.activePlayer = this.creature;
-        this.state = GameState.MOVE_CUBES;
-        this.droppedCubes = new ArrayList<>();
-        this.firstPlayer = this.creature;
-        this.lastMove = "";
+        this(new Rules(), random);
+    }
+
+    public Game(long seed) {
+        // Make a default new game, which plays out the same way each time given the same seed and moves
+        this(new SplittableRandom(seed));
+    }
+
+    public Game() {
+        this(new SplittableRandom());
     }
 
     public Game(Game game) {
@@ -66,9 +82,13 @@ public class Game {
         this.tiles = new Deck<>(game.tiles);
         this.activePlayer = game.activePlayer == game.scientist ? this.scientist : this.creature;
         this.state = game.state;
-        this.droppedCubes = game.droppedCubes.stream().map(Cube::new).collect(Collectors.toList());
+        // Dropped cubes are replaced rather than changed, so copies can share them
+        this.droppedCubes = game.droppedCubes;
         this.firstPlayer = game.getFirstPlayer() == game.getCreature() ? this.getCreature() : this.getScientist();
         this.lastMove = game.getLastMove();
+        this.history = game.history;
+        this.rules = game.rules;
+        this.randomState = game.randomState;
     }
 
     public List<Cube> getDroppedCubes() {
@@ -149,11 +169,11 @@ public class Game {
         this.state = state;
     }
 
-    public String getLastMove() {
+    public long getLastMove() {
         return lastMove;
     }
 
-    public void setLastMove(String lastMove) {
+    public void setLastMove(long lastMove) {
         this.lastMove = lastMove;
     }
 
@@ -168,10 +188,15 @@ public class Game {
     }
 
     public Game cloneAndRandomise(PlayerType player) {
-        // Randomise players
+        return this.cloneAndRandomise(player, this.chance());
+    }
+
+    public Game cloneAndRandomise(PlayerType player, SplittableRandom random) {
+        // Randomise players. The clone's later chance events follow from random too.
         Game clone = new Game(this);
-        Player scientist = clone.getScientist().cloneAndRandomise(player == PlayerType.CREATURE);
-        Player creature = clone.getCreature().cloneAndRandomise(player == PlayerType.SCIENTIST);
+        clone.randomState = random.nextLong();
+        Player scientist = clone.getScientist().cloneAndRandomise(player == PlayerType.CREATURE, random);
+        Player creature = clone.getCreature().cloneAndRandomise(player == PlayerType.SCIENTIST, random);
         Player firstPlayer = this.getFirstPlayer() == this.getScientist() ? scientist : creature;
         if(clone.getActivePlayerType() == PlayerType.SCIENTIST) {
             clone.setActivePlayer(scientist);
@@ -182,21 +207,21 @@ public class Game {
         clone.setCreature(creature);
         clone.setFirstPlayer(firstPlayer);
         // Randomise the deck of tiles
-        // Token tiles have to be in the bottom 10
+        // Token tiles have to be in the bottom of the deck, below the tiles first dealt to the board
         Deck<Tile> tiles = clone.getTiles();
-        int nonTokenCount = tiles.getItems().size() - 10;
+        int nonTokenCount = tiles.getItems().size() - this.rules.getUnseenTiles();
         List<Tile> nonTokenTiles = IntStream.range(0, nonTokenCount).mapToObj(i -> tiles.getItems().get(i))
                 .collect(Collectors.toList());
         List<Tile> tokenTiles = IntStream.range(Math.max(nonTokenCount, 0), tiles.getItems().size())
                 .mapToObj(i -> tiles.getItems().get(i))
                 .collect(Collectors.toList());
-        Collections.shuffle(tokenTiles);
+        Deck.shuffle(tokenTiles, random);
+        nonTokenTiles.addAll(tokenTiles);
         tiles.setItems(nonTokenTiles);
-        tiles.getItems().addAll(tokenTiles);
         return clone;
     }
 
-    private Deck<Tile> makeDeck(int deckSize, int boardWidth, int tokenTiles) {
+    private Deck<Tile> makeDeck(int deckSize, int boardWidth, int tokenTiles, SplittableRandom random) {
         // Construct a deck of n tiles, t of which have tokens.
         // Place the token tiles in the the bottom  n - b, where b is board width
         // topTiles hold the top tiles (which don't need shuffling), shufTiles holds the bottom tiles with the tokens,
@@ -204,249 +229,457 @@ public class Game {
         List<Tile> topTiles = new ArrayList<>();
         List<Tile> shufTiles = new ArrayList<>();
         int baseTile = deckSize - boardWidth - tokenTiles;
-        IntStream.range(0, boardWidth).forEach(i -> topTiles.add(new Tile(false)));
-        IntStream.range(0, baseTile).forEach(i -> shufTiles.add(new Tile(false)));
-        IntStream.range(0, tokenTiles).forEach(i -> shufTiles.add(new Tile(true)));
+        IntStream.range(0, boardWidth).forEach(i -> topTiles.add(Tile.of(false)));
+        IntStream.range(0, baseTile).forEach(i -> shufTiles.add(Tile.of(false)));
+        IntStream.range(0, tokenTiles).forEach(i -> shufTiles.add(Tile.of(true)));
         // Shuffle the bottom bit of the deck
-        Collections.shuffle(shufTiles);
+        Deck.shuffle(shufTiles, random);
         // Combine the two - first index is the top of the deck
         topTiles.addAll(shufTiles);
         // Make into a deck
         return new Deck<>(topTiles);
     }
 
-    public Set<Game> getActivePlayerMoves() {
-        // Return a set of all possible states the game could move into when the active player takes a move.
-        Set<Game> games = new HashSet<>();
+    public long[] getLegalMoves() {
+        // Ids of every move which can be made from this state, sorted and distinct
+        return this.getState().legalMoves(this);
+    }
+
+    public long sampleMove(SplittableRandom random) {
+        // One of getLegalMoves, chosen uniformly. States with many moves choose without listing them, so a random
+        // playout costs work in proportion to its length rather than to the moves it could have made.
+        return this.getState().sampleMove(this, random);
+    }
+
+    public Game applyMove(long move) {
+        // Return the game after making a move, leaving this game unchanged. The move is added to the history of the
+        // game returned.
+        Game next = new Game(this);
+        next.makeMove(move);
+        next.history = new History(move, this.history);
+        return next;
+    }
+
+    public History getHistory() {
+        return history;
+    }
+
+    public Rules getRules() {
+        return rules;
+    }
+
+    public long getRandomState() {
+        return randomState;
+    }
+
+    public void setRandomState(long randomState) {
+        this.randomState = randomState;
+    }
+
+    private SplittableRandom chance() {
+        // Generator for one chance event, moving the state on for the next
+        SplittableRandom random = new SplittableRandom(this.randomState);
+        this.randomState = random.nextLong();
+        return random;
+    }
+
+    public void makeMove(long move) {
+        // Make a move on this game in place, then advance to the next state. Nothing is kept to undo the move, so
+        // use this on a scratch copy, such as when playing out a game.
+        GameState played = this.getState();
+        this.performMove(move);
+        this.setState(played.nextState(this, this));
+    }
+
+    public Undo makeUndoableMove(long move) {
+        // Make a move in place, returning what unmakeMove needs to reverse it. This is copy on write rather than
+        // reversing the move: parts of the game the move will change are swapped for copies first, so the originals
+        // are kept unchanged in the undo record. Moves which only touch one player or the deck do not copy the board.
+        // The random state is recorded too, so moves made again after an undo have the same chance events.
+        Undo undo = new Undo(this);
+        switch (Move.type(move)) {
+            case DRAW:
+                this.detachPlayer(this.getActivePlayer());
+                break;
+            case CARD:
+            case WILDCARD:
+                this.board = new Board(this.board);
+                this.detachPlayer(this.getActivePlayer());
+                break;
+            case CREATURE_UPDATE:
+            case FREE_PLACE:
+                this.board = new Board(this.board);
+                break;
+            case SCIENTIST_DROP:
+                this.board = new Board(this.board);
+                this.detachPlayer(this.getScientist());
+                break;
+            case PLACE_TILES:
+                this.board = new Board(this.board);
+                this.tiles = new Deck<>(this.tiles);
+                break;
+            case TAKE_TOKEN:
+                this.board = new Board(this.board);
+                this.detachPlayer(this.getCreature());
+                break;
+            case TIEBREAK:
+                this.detachPlayer(this.getScientist());
+                this.detachPlayer(this.getCreature());
+                break;
+            default:
+                break;
+        }
+        this.makeMove(move);
+        return undo;
+    }
+
+    public void unmakeMove(Undo undo) {
+        // Restore this game to how it was before the move which returned undo
+        this.scientist = undo.scientist;
+        this.creature = undo.creature;
+        this.board = undo.board;
+        this.tiles = undo.tiles;
+        this.activePlayer = undo.activePlayer;
+        this.firstPlayer = undo.firstPlayer;
+        this.droppedCubes = undo.droppedCubes;
+        this.state = undo.state;
+        this.lastMove = undo.lastMove;
+        this.randomState = undo.randomState;
+    }
+
+    private void detachPlayer(Player player) {
+        // Replace a player with a copy, keeping the active and first player pointing at the right one
+        Player copy = new Player(player);
+        if(this.activePlayer == player) {
+            this.activePlayer = copy;
+        }
+        if(this.firstPlayer == player) {
+            this.firstPlayer = copy;
+        }
+        if(this.scientist == player) {
+            this.scientist = copy;
+        } else {
+            this.creature = copy;
+        }
+    }
+
+    private void performMove(long move) {
+        // Make a move on this game without changing state
+        long argument = Move.argument(move);
+        switch (Move.type(move)) {
+            case DRAW:
+                this.activePlayer.drawCard(this.chance());
+                this.toggleActivePlayer();
+                break;
+            case CARD:
+                Card card = this.findCard(this.activePlayer.getHand().getItems(), Move.card(move));
+                card.applyMove(this.board, argument);
+                this.activePlayer.playCard(card);
+                this.toggleActivePlayer();
+                break;
+            case WILDCARD:
+                this.findCard(Game.WILDCARDS, Move.card(move)).applyMove(this.board, argument);
+                this.activePlayer.setWildcardReady(false);
+                this.toggleActivePlayer();
+                break;
+            case CREATURE_UPDATE:
+                this.board.moveCreatureTo((int) argument);
+                break;
+            case SCIENTIST_DROP:
+                // If edge has token, add token to scientist
+                Board.Side side = Board.Side.values()[(int) argument];
+                for(int t = this.board.takeSideTokens(side); t > 0; t--) {
+                    this.getScientist().addToken();
+                }
+                this.droppedCubes = this.board.dropEdge(side);
+                break;
+            case FREE_PLACE:
+                // The argument is a placement of the dropped cubes on the inactive spaces
+                int spaces = this.board.getSpaceCount(false);
+                int[] cubes = this.getDroppedCounts();
+                for(int i = 0; i < spaces; i++) {
+                    for(Color color : Color.values()) {
+                        int n = CubePlacements.placed(argument, cubes, spaces, i, color);
+                        if(n > 0) {
+                            this.board.addCubes(false, i, color, n);
+                        }
+                    }
+                }
+                this.droppedCubes = Collections.emptyList();
+                break;
+            case PLACE_TILES:
+                // Draw the top two tiles, argument 0 places them left then right, 1 right then left
+                Tile first = this.getTiles().draw();
+                Tile second = this.getTiles().draw();
+                this.board.addTiles(argument == 0 ? first : second, argument == 0 ? second : first);
+                this.toggleFirstPlayer();
+                break;
+            case TAKE_TOKEN:
+                this.board.setTokenPresent(false, (int) argument, false);
+                this.getCreature().addToken();
+                break;
+            case TIEBREAK:
+                // Count number of token on bottom row
+                for(int t = this.board.countTokensPresent(false); t > 0; t--) {
+                    this.getCreature().addToken();
+                }
+                for(int t = this.board.countTokensPresent(true); t > 0; t--) {
+                    this.getScientist().addToken();
+                }
+                break;
+            case PASS:
+                break;
+            default:
+                throw new IllegalArgumentException("Cannot make move " + Move.describe(move));
+        }
+        this.setLastMove(move);
+    }
+
+    private Card findCard(List<Card> cards, int cardId) {
+        for(Card card : cards) {
+            if(card.getCardId() == cardId) {
+                return card;
+            }
+        }
+        throw new IllegalArgumentException("No card with id " + cardId + " available");
+    }
+
+    public long[] listActivePlayerMoves() {
+        // Return all the moves the active player could make.
+        MoveList moves = new MoveList();
+        PlayerType player = this.getActivePlayerType();
         // First possibility is that the active player draws a card.
         if(this.getActivePlayer().getHand().size() < this.getActivePlayer().getHandLimit()) {
-            Game draw = new Game(this);
-            draw.activePlayer.drawCards(1);
-            draw.toggleActivePlayer();
-            draw.setLastMove((this.activePlayer == this.creature ?
-                    PlayerType.CREATURE.name() : PlayerType.SCIENTIST.name()) + "|DRAW");
-            games.add(draw);
+            moves.add(Move.of(MoveType.DRAW, player, 0));
         }
         // Play each distinct card
         for(Card card : this.getActivePlayer().uniqueCards()) {
-            // For each distinct card in this players hand, make all possible future states if that card is played
-            for(Board board : card.getPossibleMoves(this.board)) {
-                Game cardPlay = new Game(this);
-                cardPlay.setBoard(board);
-                cardPlay.activePlayer.getHand().getItems().remove(card);
-                cardPlay.activePlayer.getDeck().getDiscard().add(card);
-                cardPlay.toggleActivePlayer();
-                // Make a string so we can uniquely identify the move just made (card played + board state moved into)
-                String moveDesc = (this.activePlayer == this.creature ? PlayerType.CREATURE.name() :
-                        PlayerType.SCIENTIST.name()) + "|" + card.getClass().getName() + "|" + board.hashCode();
-                cardPlay.setLastMove(moveDesc);
-                games.add(cardPlay);
-            }
+            card.listMoves(this.board, Move.of(MoveType.CARD, player, card.getCardId(), 0), moves);
         }
         // Play wildcard
         if(this.getActivePlayer().isWildcardReady()) {
             for (Card card : Game.WILDCARDS) {
-                // For each distinct card in this players hand, make all possible future states if that card is played
-                for (Board board : card.getPossibleMoves(this.board)) {
-                    Game cardPlay = new Game(this);
-                    cardPlay.getActivePlayer().setWildcardReady(false);
-                    cardPlay.setBoard(board);
-                    cardPlay.toggleActivePlayer();
-                    // Make a string so we can uniquely identify the move just made (card played + board state moved into)
-                    String moveDesc = (this.activePlayer == this.creature ? PlayerType.CREATURE.name() :
-                            PlayerType.SCIENTIST.name()) + "|WILDCARD|" + board.hashCode();
-                    games.add(cardPlay);
-                }
+                card.listMoves(this.board, Move.of(MoveType.WILDCARD, player, card.getCardId(), 0), moves);
             }
         }
-        return games;
+        return moves.toSortedArray();
+    }
+
+    public long sampleActivePlayerMove(SplittableRandom random) {
+        // One of listActivePlayerMoves, chosen uniformly. Moves of different kinds or cards never share an id, so a
+        // card is chosen in proportion to its number of moves, then one of its moves.
+        PlayerType player = this.getActivePlayerType();
+        boolean canDraw = this.getActivePlayer().getHand().size() < this.getActivePlayer().getHandLimit();
+        List<Card> cards = this.getActivePlayer().uniqueCards();
+        boolean wildcard = this.getActivePlayer().isWildcardReady();
+        long total = canDraw ? 1 : 0;
+        for(Card card : cards) {
+            total += card.countMoves(this.board);
+        }
+        if(wildcard) {
+            for(Card card : Game.WILDCARDS) {
+                total += card.countMoves(this.board);
+            }
+        }
+        if(total == 0) {
+            throw new IllegalStateException("No moves for " + player);
+        }
+        long r = random.nextLong(total);
+        if(canDraw && r-- == 0) {
+            return Move.of(MoveType.DRAW, player, 0);
+        }
+        for(Card card : cards) {
+            long moves = card.countMoves(this.board);
+            if(r < moves) {
+                return card.sampleMove(this.board, Move.of(MoveType.CARD, player, card.getCardId(), 0), random);
+            }
+            r -= moves;
+        }
+        for(Card card : Game.WILDCARDS) {
+            long moves = card.countMoves(this.board);
+            if(r < moves) {
+                return card.sampleMove(this.board, Move.of(MoveType.WILDCARD, player, card.getCardId(), 0), random);
+            }
+            r -= moves;
+        }
+        throw new IllegalStateException("Move count changed while sampling");
     }
 
-    public Set<Game> getCreatureUpdates() {
-        // Return possible game states when creature updates their position
-        Set<Game> games = new HashSet<>();
+    public long[] listCreatureUpdates() {
+        // Return possible moves when creature updates their position. Each move is identified by the mask of
+        // inactive row tiles the creature will be present on afterwards.
+        int presence = this.getBoard().getInactivePresence();
+        MoveList masks = new MoveList();
         // Deal with numbers of cubes first
         // Determine the numbers the creature could say
-        Set<Integer> numbers = IntStream.range(0, this.getBoard().getInactiveRowTiles().size())
-                .map(i -> this.getBoard().getNumberAdjacent(false, i))
-                .boxed()
-                .collect(Collectors.toSet());
-        for(Integer num : numbers) {
-            Game copy = new Game(this);
-            // Move to number, modifies in place
-            copy.getBoard().moveToNumber(num);
-            copy.setLastMove("CREATUREUPDATE|" + board.hashCode());
-            games.add(copy);
+        // Duplicate numbers and colors give duplicate masks, which are removed when sorted
+        int tiles = this.getBoard().getRowSize(false);
+        for(int i = 0; i < tiles; i++) {
+            masks.add(presence | this.getBoard().numberTargets(this.getBoard().getNumberAdjacent(false, i)));
         }
-
         // Deal with colors second
-        Set<Set<Color>> colors = IntStream.range(0, this.getBoard().getInactiveRowTiles().size())
-                .mapToObj(i -> this.getBoard().getColorAdjacent(false, i))
-                .collect(Collectors.toSet());
-        // For each color set the creature could move to, make a new game
-        for(Set<Color> c : colors) {
-            Game copy = new Game(this);
-            copy.getBoard().moveToColor(c);
-            copy.setLastMove("CREATUREUPDATE|" + board.hashCode());
-            games.add(copy);
+        for(int i = 0; i < tiles; i++) {
+            masks.add(presence | this.getBoard().colorTargets(this.getBoard().getColorMaskAdjacent(false, i)));
         }
 
-        // Select games where the creature does not lose (present in more than one place)
-        Set<Game> nonLoss = games.stream().filter(g -> {
-            return g.getBoard().getInactiveRowTiles().stream().filter(Tile::isCreaturePresent).mapToInt(t -> 1).sum() > 1;
-        }).collect(Collectors.toSet());
-        // Select games where the creature wins
-        Set<Game> win = games.stream().filter(g -> {
-            return g.getBoard().getInactiveRowTiles().get(0).isCreaturePresent() &&
-                    g.getBoard().getInactiveRowTiles().get(g.getBoard().getInactiveRowTiles().size()-1).isCreaturePresent() &&
-                    g.getBoard().size() == g.getBoard().getMaxWidth();
-        }).collect(Collectors.toSet());
+        // Sort moves into those where the creature wins, and those where it does not lose (present in more than one
+        // place)
+        MoveList all = new MoveList();
+        MoveList win = new MoveList();
+        MoveList nonLoss = new MoveList();
+        int last = tiles - 1;
+        boolean fullWidth = this.getBoard().size() == this.getBoard().getMaxWidth();
+        for(long mask : masks.toSortedArray()) {
+            long move = Move.of(MoveType.CREATURE_UPDATE, PlayerType.CREATURE, mask);
+            all.add(move);
+            if(fullWidth && (mask & 1) == 1 && (mask >> last & 1) == 1) {
+                win.add(move);
+            }
+            if(Long.bitCount(mask) > 1) {
+                nonLoss.add(move);
+            }
+        }
         // If winning moves exist, only take the winning moves
         if(win.size() > 0) {
-            return win;
+            return win.toSortedArray();
         }
         // If it is possible, opt to not lose if we can't win
         if(nonLoss.size() > 0) {
-            return nonLoss;
+            return nonLoss.toSortedArray();
         }
         // Otherwise I guess we should just lose :(
-        return games;
+        return all.toSortedArray();
     }
 
-    public Set<Game> getScientistDrop() {
-        // Get state if scientist drops either edge.
-        // If edge shouldn't be dropped, just return current game state
-        Set<Game> games = new HashSet<>();
+    public long[] listScientistDrops() {
+        // Get moves for the scientist dropping either edge.
+        // If edge shouldn't be dropped, pass
+        MoveList moves = new MoveList(2);
         if(this.getBoard().size() == this.getBoard().getMaxWidth()) {
             // Board is as at max width, so do left and right drops
-            Game dropLeft = new Game(this);
-            if(!dropLeft.getBoard().getInactiveRowTiles().get(0).isCreaturePresent()) {
-                List<Tile> tokenTiles = dropLeft.getBoard().getSideTiles(Board.Side.LEFT).stream()
-                        .filter(Tile::isTokenPresent).collect(Collectors.toList());
-                tokenTiles.forEach(t -> {
-                    t.setTokenPresent(false);
-                    dropLeft.getScientist().addToken();
-                });
-                // If edge has token, add token to scientist
-                dropLeft.droppedCubes = dropLeft.getBoard().dropEdge(Board.Side.LEFT);
-                dropLeft.setLastMove("SCIENTISTDROP|LEFT|" + board.hashCode());
-                games.add(dropLeft);
+            int last = this.getBoard().getRowSize(false) - 1;
+            if(!this.getBoard().isCreaturePresent(false, 0)) {
+                moves.add(Move.of(MoveType.SCIENTIST_DROP, PlayerType.SCIENTIST, Board.Side.LEFT.ordinal()));
             }
-            Game dropRight = new Game(this);
-            if(!dropRight.getBoard().getInactiveRowTiles().get(dropRight.getBoard().getInactiveRowTiles().size()-1)
-                    .isCreaturePresent()) {
-                List<Tile> tokenTiles = dropRight.getBoard().getSideTiles(Board.Side.RIGHT).stream()
-                        .filter(Tile::isTokenPresent).collect(Collectors.toList());
-                tokenTiles.forEach(t -> {
-                    t.setTokenPresent(false);
-                    dropRight.getScientist().addToken();
-                });
-                dropRight.droppedCubes = dropRight.getBoard().dropEdge(Board.Side.RIGHT);
-                games.add(dropRight);
-                dropRight.setLastMove("SCIENTISTDROP|RIGHT|" + board.hashCode());
+            if(!this.getBoard().isCreaturePresent(false, last)) {
+                moves.add(Move.of(MoveType.SCIENTIST_DROP, PlayerType.SCIENTIST, Board.Side.RIGHT.ordinal()));
             }
-            if(games.size() == 0) {
-                // If it isn't possible to drop and edge, return current gamestate.
-                // Will lead to creature win during state change
-                Game copy = new Game(this);
-                copy.setLastMove("SCIENTISTDROP|NONE");
-                games.add(copy);
-            }
-        } else {
-            games.add(new Game(this));
         }
-        return games;
+        if(moves.size() == 0) {
+            // If it isn't possible to drop an edge, pass.
+            // Will lead to creature win during state change
+            moves.add(Move.of(MoveType.PASS, PlayerType.SCIENTIST, 0));
+        }
+        return moves.toSortedArray();
     }
 
-    public Set<Game> getFreePlace() {
-        // Return all the states in which the dropped cubes could be placed.
-        // If no dropped cubes, just return current state
-        Set<Game> games = new HashSet<>();
+    public long[] listFreePlaces() {
+        // Return all the ways in which the dropped cubes could be placed.
+        // If no dropped cubes, just pass
         if(this.getDroppedCubes().size() == 0) {
-            games.add(new Game(this));
-            return games;
+            return new long[] {Move.of(MoveType.PASS, PlayerType.CREATURE, 0)};
         }
-        for(Board board : this.placeCubes(new HashSet<>(Arrays.asList(new Board(this.getBoard()))),
-                this.getDroppedCubes().stream().map(Cube::new).collect(Collectors.toList()),
-                this.getBoard())) {
-            Game copy = new Game(this);
-            copy.setBoard(board);
-            copy.setDroppedCubes(new ArrayList<>());
-            copy.setLastMove("CREATURE|FREEPLACE|" + board.hashCode());
-            games.add(copy);
+        // One move for each distinct way the dropped cubes can lie on the inactive spaces, as CubePlacements packs
+        // them
+        int spaces = this.getBoard().getSpaceCount(false);
+        int[] cubes = this.getDroppedCounts();
+        MoveList moves = new MoveList((int) Math.min(CubePlacements.count(cubes, spaces), 1 << 16));
+        CubePlacements.forEach(cubes, spaces,
+                placement -> moves.add(Move.of(MoveType.FREE_PLACE, PlayerType.CREATURE, placement)));
+        return moves.toSortedArray();
+    }
+
+    public long sampleFreePlace(SplittableRandom random) {
+        // One of the moves listFreePlaces lists, chosen uniformly without listing them
+        if(this.getDroppedCubes().size() == 0) {
+            return Move.of(MoveType.PASS, PlayerType.CREATURE, 0);
         }
-        return games;
+        long placement = CubePlacements.sample(this.getDroppedCounts(), this.getBoard().getSpaceCount(false), random);
+        return Move.of(MoveType.FREE_PLACE, PlayerType.CREATURE, placement);
+    }
+
+    public int[] getDroppedCounts() {
+        // Dropped cubes of each color, by ordinal
+        int[] counts = new int[Color.values().length];
+        for(Cube cube : this.droppedCubes) {
+            counts[cube.getColor().ordinal()]++;
+        }
+        return counts;
+    }
+
+    public long[] listDrawTiles() {
+        // Draw the top two tiles, place them either left or right. Two of the same tile are placed the same either
+        // way round, so have only the one move.
+        PlayerType player = this.getFirstPlayer() == this.getCreature() ? PlayerType.CREATURE : PlayerType.SCIENTIST;
+        List<Tile> top = this.getTiles().getItems();
+        if(top.get(0).equals(top.get(1))) {
+            return new long[] {Move.of(MoveType.PLACE_TILES, player, 0)};
+        }
+        return new long[] {Move.of(MoveType.PLACE_TILES, player, 0), Move.of(MoveType.PLACE_TILES, player, 1)};
+    }
+
+    public long[] listCreatureTokens() {
+        // Creature can take on of the possible tokens.
+        MoveList moves = new MoveList();
+        for(Integer idx : this.getBoard().getCreatureTokens()) {
+            moves.add(Move.of(MoveType.TAKE_TOKEN, PlayerType.CREATURE, idx));
+        }
+        if(moves.size() == 0) {
+            // If no token which can be taken, just keep current state
+            moves.add(Move.of(MoveType.PASS, PlayerType.CREATURE, 0));
+        }
+        return moves.toSortedArray();
+    }
+
+    public long[] listTiebreaker() {
+        return new long[] {Move.of(MoveType.TIEBREAK, null, 0)};
+    }
+
+    public Set<Game> getActivePlayerMoves() {
+        // Return a set of all possible states the game could move into when the active player takes a move.
+        return this.successors(this.listActivePlayerMoves());
+    }
+
+    public Set<Game> getCreatureUpdates() {
+        // Return possible game states when creature updates their position
+        return this.successors(this.listCreatureUpdates());
+    }
+
+    public Set<Game> getScientistDrop() {
+        // Get state if scientist drops either edge.
+        return this.successors(this.listScientistDrops());
+    }
+
+    public Set<Game> getFreePlace() {
+        // Return all the states in which the dropped cubes could be placed.
+        return this.successors(this.listFreePlaces());
     }
 
     public Set<Game> getDrawTiles() {
         // Draw the top two tiles, place them either left or right
-        List<Tile> tiles;
-        Set<Game> games = new HashSet<>();
-        Game lr = new Game(this);
-        tiles = lr.getTiles().draw(2);
-        lr.getBoard().addTiles(new Tile(tiles.get(0)), new Tile(tiles.get(1)));
-        lr.setLastMove((lr.getFirstPlayer() == lr.getCreature() ? PlayerType.CREATURE.name() : PlayerType.SCIENTIST.name()) +
-                "|PLACETILES|" + board.hashCode());
-        lr.toggleFirstPlayer();
-        Game rl = new Game(this);
-        tiles = rl.getTiles().draw(2);
-        rl.getBoard().addTiles(new Tile(tiles.get(1)), new Tile(tiles.get(0)));
-        rl.setLastMove((rl.getFirstPlayer() == rl.getCreature() ? PlayerType.CREATURE.name() : PlayerType.SCIENTIST.name()) +
-                "|PLACETILES|" + board.hashCode());
-        rl.toggleFirstPlayer();
-        games.addAll(Arrays.asList(lr, rl));
-        return games;
+        return this.successors(this.listDrawTiles());
     }
 
     public Set<Game> getCreatureToken() {
         // Creature can take on of the possible tokens.
-        List<Integer> tokenIdx = this.getBoard().getCreatureTokens();
+        return this.successors(this.listCreatureTokens());
+    }
+
+    public Set<Game> getTiebreaker() {
+        return this.successors(this.listTiebreaker());
+    }
+
+    private Set<Game> successors(long[] moves) {
+        // Build the game following each move. Unlike applyMove, the state is not advanced.
         Set<Game> games = new HashSet<>();
-        for(Integer idx: tokenIdx) {
+        for(long move : moves) {
             Game copy = new Game(this);
-            Tile tile = copy.getBoard().getInactiveRowTiles().get(idx);
-            tile.setTokenPresent(false);
-            copy.getCreature().addToken();
-            copy.setLastMove("CREATURE|TAKETOKEN|" + idx.toString());
+            copy.performMove(move);
             games.add(copy);
         }
-        if(games.size() == 0) {
-            // If no token which can be taken, just keep current state
-            games.add(new Game(this));
-        }
         return games;
     }
 
-    public Set<Game> getTiebreaker() {
-        // Count number of token on bottom row
-        this.getBoard().getBottomRowTiles().stream()
-                .filter(Tile::isTokenPresent)
-                .forEach(t -> this.getCreature().addToken());
-        this.getBoard().getTopRowTiles().stream()
-                .filter(Tile::isTokenPresent)
-                .forEach(t -> this.getScientist().addToken());
-        return new HashSet<>(Arrays.asList(this));
-    }
-
-    private Set<Board> placeCubes(Set<Board> finalBoards, List<Cube> cubes, Board board) {
-        // Get the topmost cube
-        Cube cube = cubes.get(cubes.size() - 1);
-        cubes.remove(cubes.size() - 1);
-        // Recursively place cubes
-        for(int i = 0; i < board.getInactiveRowSpaces().size(); i++) {
-            // Create a board copy and place cube on space i
-            Board copy = new Board(board);
-            copy.getInactiveRowSpaces().get(i).addCube(cube);
-            if(cubes.size() == 0) {
-                finalBoards.add(copy);
-            } else {
-                // Recursively placed remaining cubes. Use a copy of cube list.
-                placeCubes(finalBoards, cubes.stream().map(Cube::new).collect(Collectors.toList()), copy);
-            }
-        }
-        return finalBoards;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -455,6 +688,9 @@ public class Game {
 
         Game game = (Game) o;
 
+        // Games with different keys differ, so only compare their parts when keys match
+        if (this.getKey() != game.getKey()) return false;
+
         return new EqualsBuilder()
                 .append(scientist, game.scientist)
                 .append(creature, game.creature)
@@ -467,14 +703,39 @@ public class Game {
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder(17, 37)
-                .append(scientist)
-                .append(creature)
-                .append(board)
-                .append(tiles)
-                .append(activePlayer)
-                .append(state)
-                .toHashCode();
+        return Long.hashCode(this.getKey());
+    }
+
+    public long getKey() {
+        // Zobrist key of the game, combining the keys of its parts. Each part keeps its own key up to date as moves
+        // are made, so this takes constant time.
+        return this.board.getKey() ^
+                Zobrist.mix(this.scientist.getKey(), Zobrist.SCIENTIST) ^
+                Zobrist.mix(this.creature.getKey(), Zobrist.CREATURE) ^
+                Zobrist.mix(this.activePlayer.getKey(), Zobrist.ACTIVE_PLAYER) ^
+                Zobrist.mix(this.tiles.getKey(), Zobrist.TILES) ^
+                Zobrist.mix(this.state.ordinal());
+    }
+
+    public long getInformationSetKey(PlayerType observer) {
+        // Key of the game as seen by one player. Games which the player cannot tell apart, because they differ only
+        // in the order of decks or in the cards the other player holds, have the same key.
+        Player own = observer == PlayerType.SCIENTIST ? this.scientist : this.creature;
+        Player other = observer == PlayerType.SCIENTIST ? this.creature : this.scientist;
+        long ownSalt = observer == PlayerType.SCIENTIST ? Zobrist.SCIENTIST : Zobrist.CREATURE;
+        long otherSalt = observer == PlayerType.SCIENTIST ? Zobrist.CREATURE : Zobrist.SCIENTIST;
+        long dropped = 0;
+        for(Cube cube : this.droppedCubes) {
+            dropped += Zobrist.mix(cube.getColor().ordinal(), Zobrist.DROPPED_CUBES);
+        }
+        return this.board.getKey() ^
+                Zobrist.mix(own.getKey(), ownSalt) ^
+                Zobrist.mix(other.getPublicKey(), otherSalt) ^
+                Zobrist.mix(this.getActivePlayerType().ordinal(), Zobrist.ACTIVE_PLAYER) ^
+                Zobrist.mix(this.firstPlayer == this.scientist ? 0 : 1, Zobrist.FIRST_PLAYER) ^
+                Zobrist.mix(this.tiles.getKey(), Zobrist.TILES) ^
+                Zobrist.mix(dropped) ^
+                Zobrist.mix(this.state.ordinal());
     }
 
     @Override
@@ -488,4 +749,74 @@ public class Game {
                 "\n+state=" + state;
     }
 
+
+    public static class History {
+        // A move made by applyMove, and the history before it. Histories are never changed, so games copied from
+        // one another share them.
+        private final long move;
+        private final History previous;
+        private final int length;
+
+        private History(long move, History previous) {
+            this.move = move;
+            this.previous = previous;
+            this.length = Objects.isNull(previous) ? 1 : previous.length + 1;
+        }
+
+        public long getMove() {
+            return move;
+        }
+
+        public History getPrevious() {
+            return previous;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public static long[] movesSince(History earlier, History later) {
+            // Moves made after earlier to reach later, in the order they were made, or null if later does not
+            // follow on from earlier
+            int earlierLength = Objects.isNull(earlier) ? 0 : earlier.length;
+            int laterLength = Objects.isNull(later) ? 0 : later.length;
+            if(laterLength < earlierLength) {
+                return null;
+            }
+            long[] moves = new long[laterLength - earlierLength];
+            History step = later;
+            for(int i = moves.length - 1; i >= 0; i--) {
+                moves[i] = step.move;
+                step = step.previous;
+            }
+            return step == earlier ? moves : null;
+        }
+    }
+
+    public static class Undo {
+        // References to the parts of a game as they were before a move. makeUndoableMove never changes these.
+        private final Player scientist;
+        private final Player creature;
+        private final Board board;
+        private final Deck<Tile> tiles;
+        private final Player activePlayer;
+        private final Player firstPlayer;
+        private final List<Cube> droppedCubes;
+        private final GameState state;
+        private final long lastMove;
+        private final long randomState;
+
+        private Undo(Game game) {
+            this.scientist = game.scientist;
+            this.creature = game.creature;
+            this.board = game.board;
+            this.tiles = game.tiles;
+            this.activePlayer = game.activePlayer;
+            this.firstPlayer = game.firstPlayer;
+            this.droppedCubes = game.droppedCubes;
+            this.state = game.state;
+            this.lastMove = game.lastMove;
+            this.randomState = game.randomState;
+        }
+    }
 }
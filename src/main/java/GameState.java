@@ -8,9 +8,7 @@ public enum GameState {
         @Override
         public GameState nextState(Game prevGame, Game currentGame) {
             // Move to CREATURE_UPDATE if all cubes moved
-            int cubeCount = currentGame.getBoard().getActiveRowSpaces().stream()
-                    .mapToInt(s -> s.getCubeCount())
-                    .sum();
+            int cubeCount = currentGame.getBoard().getCubeCount(true);
             if(cubeCount > 0) {
                 return this.MOVE_CUBES;
             } else {
@@ -23,6 +21,16 @@ public enum GameState {
             return currentGame.getActivePlayerMoves();
         }
 
+        @Override
+        public long[] legalMoves(Game currentGame) {
+            return currentGame.listActivePlayerMoves();
+        }
+
+        @Override
+        public long sampleMove(Game currentGame, SplittableRandom random) {
+            return currentGame.sampleActivePlayerMove(random);
+        }
+
         @Override
         public PlayerType playerToMove(Game game) {
             return game.getActivePlayerType();
@@ -32,14 +40,12 @@ public enum GameState {
         @Override
         public GameState nextState(Game prevGame, Game currentGame) {
             // Defensively ensure that the creature is no longer present on the active row
-            int activePresent = currentGame.getBoard().getTilesWithCreature().size();
-            if(activePresent > 0) {
+            if(currentGame.getBoard().getActivePresence() != 0) {
                 return this.CREATURE_UPDATE;
             }
             // Determine how many tiles the creature exists on in the inactive row.
             // If 0 or 1, move to a scientist win condition
-            int inactivePresent = currentGame.getBoard().getInactiveRowTiles().stream().filter(Tile::isCreaturePresent)
-                    .mapToInt(t -> 1).sum();
+            int inactivePresent = Integer.bitCount(currentGame.getBoard().getInactivePresence());
             if(inactivePresent < 2) {
                 return this.SCIENTIST_WIN;
             }
@@ -53,6 +59,11 @@ public enum GameState {
             return currentGame.getCreatureUpdates();
         }
 
+        @Override
+        public long[] legalMoves(Game currentGame) {
+            return currentGame.listCreatureUpdates();
+        }
+
         @Override
         public PlayerType playerToMove(Game game) {
             return PlayerType.CREATURE;
@@ -71,6 +82,12 @@ public enum GameState {
             return new HashSet<>(Arrays.asList(currentGame));
         }
 
+        @Override
+        public long[] legalMoves(Game currentGame) {
+            // Terminal state - no moves
+            return new long[0];
+        }
+
         @Override
         public PlayerType playerToMove(Game game) {
             return null;
@@ -87,6 +104,12 @@ public enum GameState {
             return new HashSet<>(Arrays.asList(currentGame));
         }
 
+        @Override
+        public long[] legalMoves(Game currentGame) {
+            // Terminal state - no moves
+            return new long[0];
+        }
+
         @Override
         public PlayerType playerToMove(Game game) {
             return null;
@@ -96,8 +119,9 @@ public enum GameState {
         @Override
         public GameState nextState(Game prevGame, Game currentGame) {
             // If creature exists on both edges, move to creature win
-            if(currentGame.getBoard().getInactiveRowTiles().get(0).isCreaturePresent() &&
-                    currentGame.getBoard().getInactiveRowTiles().get(currentGame.getBoard().getInactiveRowTiles().size()-1).isCreaturePresent() &&
+            Board board = currentGame.getBoard();
+            if(board.isCreaturePresent(false, 0) &&
+                    board.isCreaturePresent(false, board.getRowSize(false) - 1) &&
                     currentGame.getBoard().size() == currentGame.getBoard().getMaxWidth()
             ) {
                 return this.CREATURE_WIN;
@@ -114,6 +138,11 @@ public enum GameState {
             return currentGame.getScientistDrop();
         }
 
+        @Override
+        public long[] legalMoves(Game currentGame) {
+            return currentGame.listScientistDrops();
+        }
+
         @Override
         public PlayerType playerToMove(Game game) {
             return PlayerType.SCIENTIST;
@@ -130,6 +159,16 @@ public enum GameState {
             return currentGame.getFreePlace();
         }
 
+        @Override
+        public long[] legalMoves(Game currentGame) {
+            return currentGame.listFreePlaces();
+        }
+
+        @Override
+        public long sampleMove(Game currentGame, SplittableRandom random) {
+            return currentGame.sampleFreePlace(random);
+        }
+
         @Override
         public PlayerType playerToMove(Game game) {
             return PlayerType.CREATURE;
@@ -146,6 +185,11 @@ public enum GameState {
             return currentGame.getDrawTiles();
         }
 
+        @Override
+        public long[] legalMoves(Game currentGame) {
+            return currentGame.listDrawTiles();
+        }
+
         @Override
         public PlayerType playerToMove(Game game) {
             return game.getFirstPlayer() == game.getCreature() ? PlayerType.CREATURE : PlayerType.SCIENTIST;
@@ -170,6 +214,11 @@ public enum GameState {
             return currentGame.getCreatureToken();
         }
 
+        @Override
+        public long[] legalMoves(Game currentGame) {
+            return currentGame.listCreatureTokens();
+        }
+
         @Override
         public PlayerType playerToMove(Game game) {
             return PlayerType.CREATURE;
@@ -190,6 +239,11 @@ public enum GameState {
             return currentGame.getTiebreaker();
         }
 
+        @Override
+        public long[] legalMoves(Game currentGame) {
+            return currentGame.listTiebreaker();
+        }
+
         @Override
         public PlayerType playerToMove(Game game) {
             return null;
@@ -198,17 +252,25 @@ public enum GameState {
 
     public abstract GameState nextState(Game prevGame, Game currentGame);
     public abstract Set<Game> possibleGames(Game currentGame);
+    // Sorted, distinct ids of the moves which can be made. Cheaper than possibleGames, as no successor is built.
+    public abstract long[] legalMoves(Game currentGame);
     public abstract PlayerType playerToMove(Game game);
 
+    public long sampleMove(Game currentGame, SplittableRandom random) {
+        // One legal move chosen uniformly. States whose moves are many override this to choose without listing them.
+        long[] moves = this.legalMoves(currentGame);
+        return moves[random.nextInt(moves.length)];
+    }
+
     public static void main(String[] args) {
-        Game game = new Game();
-        // Play out a game at random
+        // Play out a game at random. Pass the seed printed to replay the same game.
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : System.nanoTime();
+        System.out.println("Seed: " + seed);
+        Game game = new Game(seed);
+        SplittableRandom random = new SplittableRandom(seed);
         while(!(game.getState() == GameState.SCIENTIST_WIN || game.getState() == GameState.CREATURE_WIN)) {
             System.out.println(game);
-            List<Game> possible = new ArrayList<>(game.getState().possibleGames(game));
-            Collections.shuffle(possible);
-            game = possible.get(0);
-            game.setState(game.getState().nextState(game, game));
+            game = game.applyMove(game.sampleMove(random));
         }
         System.out.println(game);
     }
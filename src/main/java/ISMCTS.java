@@ -1,130 +1,548 @@
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ISMCTS {
     static double DEFAULT_EXPLORATION = 0.7;
     private int itermax;
     private boolean verbose;
     private double exploration;
+    private int threads;
+    private Parallelism parallelism;
+    private ExecutorService workers;
+    // When above 0, each search also stops once this many milliseconds have passed
+    private long timeBudgetMillis;
+    // When above 0, searches share nodes between transpositions, finding them in a table of up to this many nodes
+    private int transpositionTableSize;
+    // Trees kept from the last search, with the game they were searched from and the player they searched for. The
+    // next search for the same player starts from the nodes reached by the moves made since.
+    private boolean reuseTree;
+    private List<TreeNode> reusableRoots;
+    private Game.History reusableHistory;
+    private PlayerType reusableFor;
+    private long reusableKey;
+    private int lastReusedVisits;
+    // When above 0, the most nodes the search's trees may hold between them, and what to do when they are full
+    private int nodeBudget;
+    private NodeBudget.Policy budgetPolicy;
+    private AtomicLong evictedNodes;
+    private int lastTreeSize;
+    private volatile boolean stopRequested;
+    // Each search, and each of its workers, draws from a generator split from this one, so seeding it makes
+    // single threaded and root parallel searches of a fixed number of iterations repeatable
+    private SplittableRandom random;
+    // Throughput of the searches run so far
+    private int lastIterations;
+    private SearchMetrics lastMetrics;
+    private Map<GameState, Long> iterationsByState;
+    private Map<GameState, Long> searchNanosByState;
+    // ROOT - each worker grows its own tree from its own determinizations, and the visit counts of the root
+    // children are summed before picking a move.
+    // TREE - all workers descend one shared tree of ConcurrentTreeNodes.
+    public enum Parallelism {ROOT, TREE};
+    // NODES - trees of TreeNode objects.
+    // ARENA - trees held in ArenaTree arrays, which are kept and cleared between searches rather than reallocated.
+    // Arena trees are not shared between threads, so cannot be used for tree-parallel search, and do not look for
+    // transpositions or carry over between moves.
+    public enum Storage {NODES, ARENA};
+    private Storage storage;
+    private List<ArenaTree> arenas;
 
-    public ISMCTS(int itermax, boolean verbose, double exploration) {
+    public ISMCTS(int itermax, boolean verbose, double exploration, int threads, Parallelism parallelism) {
+        if(threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
         this.itermax = itermax;
         this.verbose = verbose;
         this.exploration = exploration;
+        this.threads = threads;
+        this.parallelism = parallelism;
+        this.timeBudgetMillis = 0;
+        this.reuseTree = true;
+        this.storage = Storage.NODES;
+        // Trees shared between threads cannot be pruned while the other threads are using them
+        this.budgetPolicy = threads > 1 && parallelism == Parallelism.TREE
+                ? NodeBudget.Policy.STOP_EXPANSION : NodeBudget.Policy.PRUNE;
+        this.evictedNodes = new AtomicLong(0);
+        this.arenas = new ArrayList<>();
+        this.random = new SplittableRandom();
+        this.iterationsByState = new EnumMap<>(GameState.class);
+        this.searchNanosByState = new EnumMap<>(GameState.class);
     }
 
-    public ISMCTS(int itermax, boolean verbose) {
-        this(itermax, verbose, DEFAULT_EXPLORATION);
+    public ISMCTS(int itermax, boolean verbose, double exploration, int threads) {
+        this(itermax, verbose, exploration, threads, Parallelism.ROOT);
     }
 
-    private Set<Game> getStates(Game game) {
-        return game.getState().possibleGames(game);
+    public ISMCTS(int itermax, boolean verbose, double exploration) {
+        this(itermax, verbose, exploration, 1);
     }
 
-    private Set<String> getMoves(Game game) {
-         return game.getState().possibleGames(game).stream()
-                .map(Game::getLastMove).collect(Collectors.toSet());
+    public ISMCTS(int itermax, boolean verbose) {
+        this(itermax, verbose, DEFAULT_EXPLORATION);
     }
 
     public Game selectMove(Game rootstate) {
-        TreeNode root = new TreeNode("", null, null, this.getExploration());
-        Random rand = new Random();
-        // If only one possible state, return that state
-        List<Game> games = new ArrayList<>(rootstate.getState().possibleGames(rootstate));
-        if(games.size() == 1) {
-            return games.get(0);
+        // Returns the game after the chosen move is made, with its state advanced.
+        // If only one possible move, make that move without thinking
+        long[] moves = rootstate.getLegalMoves();
+        if(moves.length == 0) {
+            this.lastIterations = 0;
+            this.lastMetrics = new SearchMetrics();
+            return rootstate;
+        }
+        if(moves.length == 1) {
+            this.lastIterations = 0;
+            this.lastMetrics = new SearchMetrics();
+            return rootstate.applyMove(moves[0]);
+        }
+
+        // Search until itermax iterations have run, the time budget is spent, or stop() is called. A stop which
+        // came before the search started is kept, and ends it after one iteration.
+        long start = System.nanoTime();
+        long deadline = this.timeBudgetMillis > 0 ? start + this.timeBudgetMillis * 1000000L : 0;
+        SearchMetrics metrics = new SearchMetrics();
+        if(this.storage == Storage.ARENA) {
+            long bestMove = this.arenaSearch(rootstate, deadline, metrics);
+            this.lastTreeSize = this.arenas.stream().limit(this.threads).mapToInt(ArenaTree::size).sum();
+            this.finishSearch(rootstate.getState(), metrics, System.nanoTime() - start);
+            return rootstate.applyMove(bestMove);
         }
+        List<TreeNode> roots = this.reuseRoots(rootstate);
+        long bestMove;
+        if(this.threads > 1 && this.parallelism == Parallelism.ROOT) {
+            bestMove = this.rootParallelSearch(rootstate, deadline, metrics, roots);
+        } else if(this.threads > 1 && this.parallelism == Parallelism.TREE) {
+            bestMove = this.treeParallelSearch(rootstate, deadline, metrics, roots);
+        } else {
+            if(roots.isEmpty()) {
+                roots.add(new TreeNode(Move.NONE, null, null, this.getExploration()));
+            }
+            TreeNode root = roots.get(0);
+            SplittableRandom rand = this.random.split();
+            TranspositionTable table = this.makeTranspositionTable();
+            NodeBudget budget = this.makeNodeBudget(root, 1);
+            for (int i = 0; this.keepSearching(i, this.itermax, deadline); i++) {
+                this.iterate(root, rootstate, rand, table, budget, metrics);
+            }
+            bestMove = ISMCTS.mostVisited(root, moves);
+        }
+        this.lastTreeSize = roots.stream().mapToInt(NodeBudget::countNodes).sum();
+        this.finishSearch(rootstate.getState(), metrics, System.nanoTime() - start);
+        if(this.reuseTree) {
+            this.reusableRoots = roots;
+            this.reusableHistory = rootstate.getHistory();
+            this.reusableFor = rootstate.getActivePlayerType();
+            this.reusableKey = rootstate.getInformationSetKey(this.reusableFor);
+        }
+        return rootstate.applyMove(bestMove);
+    }
 
-        // Memo legal states & moves from a given state
-        for (int i = 0; i < this.itermax; i++) {
+    private List<TreeNode> reuseRoots(Game rootstate) {
+        // Find the nodes of the last search's trees for the game being searched. Everything else in the old trees
+        // is let go. Returns an empty list if the trees cannot be reused.
+        List<TreeNode> roots = new ArrayList<>();
+        List<TreeNode> previous = this.reusableRoots;
+        this.reusableRoots = null;
+        this.lastReusedVisits = 0;
+        long[] moves = Game.History.movesSince(this.reusableHistory, rootstate.getHistory());
+        if(!this.reuseTree || Objects.isNull(previous) || Objects.isNull(moves) ||
+                this.reusableFor != rootstate.getActivePlayerType()) {
+            return roots;
+        }
+        // Games with no moves between them could be the start of two different games
+        if(moves.length == 0 && this.reusableKey != rootstate.getInformationSetKey(this.reusableFor)) {
+            return roots;
+        }
+        for(TreeNode root : previous) {
             TreeNode node = root;
+            for(int i = 0; i < moves.length && !Objects.isNull(node); i++) {
+                node = this.findChild(node, moves[i]);
+            }
+            if(Objects.isNull(node)) {
+                // A tree which never tried the moves made has nothing to offer, so all trees start afresh
+                return new ArrayList<>();
+            }
+            node.setParent(null);
+            roots.add(node);
+            this.lastReusedVisits += node.getVisits();
+        }
+        return roots;
+    }
 
-            // Randomise game state
-            PlayerType toMove = rootstate.getActivePlayerType();
-            Game state = rootstate.cloneAndRandomise(toMove);
-
-            // Select
-            Set<Game> legalStates;
-            Set<String> legalMoves;
-            Set<String> untriedMoves;
-            do {
-                legalStates = this.getStates(state);
-                // If there's only one legal state, return that one without thinking
-
-                legalMoves = this.getMoves(state);
-                untriedMoves = node.getUntriedMoves(legalMoves);
-                if (!(legalMoves.size() != 0 && untriedMoves.size() == 0)) {
-                    break;
-                }
-                node = node.selectChild(legalMoves);
-                final String selectedMove = node.getMove();
-                state = legalStates.stream().filter(s -> s.getLastMove().equals(selectedMove)).findFirst().get();
-                state.setState(state.getState().nextState(state, state));
-            } while (true);
-
-            // Expand
-            if (untriedMoves.size() != 0) {
-                // Determine player to move
-                PlayerType player = state.getState().playerToMove(state);
-                // Select a random move
-                final Set<String> copyUntried = new HashSet<>(untriedMoves);
-                List<Game> untriedStateList = legalStates.stream()
-                        .filter(s -> copyUntried.contains(s.getLastMove()))
-                        .collect(Collectors.toList());
-                int randomIdx = rand.nextInt(untriedStateList.size());
-                state = untriedStateList.get(randomIdx);
-                state.setState(state.getState().nextState(state, state));
-                node = node.addChild(state.getLastMove(), player);
+    private TreeNode findChild(TreeNode node, long move) {
+        for(TreeNode child : node.getChildren()) {
+            if(child.getMove() == move) {
+                return child.getShared();
             }
+        }
+        return null;
+    }
+
+    private boolean keepSearching(int iteration, int limit, long deadline) {
+        // Always run at least one iteration so there is a move to return. Otherwise this is checked every
+        // iteration, so only does one clock read.
+        if(iteration == 0) {
+            return true;
+        }
+        if(iteration >= limit || this.stopRequested) {
+            return false;
+        }
+        return deadline == 0 || System.nanoTime() < deadline;
+    }
 
-            // Simulate
-            // Play randomly until a terminal state is reached
-            while (!(state.getState() == GameState.CREATURE_WIN || state.getState() == GameState.SCIENTIST_WIN)) {
-                List<Game> legalStateList = new ArrayList<>(this.getStates(state));
-                int randomIdx = rand.nextInt(legalStateList.size());
-                state = legalStateList.get(randomIdx);
-                state.setState(state.getState().nextState(state, state));
+    private void finishSearch(GameState state, SearchMetrics metrics, long nanos) {
+        // The stop, if any, has ended this search, so the next one runs its full budget
+        this.stopRequested = false;
+        metrics.finish(nanos, this.lastTreeSize);
+        this.lastMetrics = metrics;
+        this.recordThroughput(state, (int) metrics.getIterations(), nanos);
+        if(this.verbose) {
+            System.out.println(metrics);
+        }
+    }
+
+    private synchronized void recordThroughput(GameState state, int iterations, long nanos) {
+        this.lastIterations = iterations;
+        this.iterationsByState.merge(state, (long) iterations, Long::sum);
+        this.searchNanosByState.merge(state, nanos, Long::sum);
+    }
+
+    private long rootParallelSearch(Game rootstate, long deadline, SearchMetrics metrics, List<TreeNode> reused) {
+        // Split the iterations between the workers, each of which searches a tree of its own. The trees searched
+        // are put in reused, in worker order, for the next search.
+        List<Future<TreeNode>> roots = new ArrayList<>();
+        for(int w = 0; w < this.threads; w++) {
+            final int share = this.itermax / this.threads + (w < this.itermax % this.threads ? 1 : 0);
+            final TreeNode root = w < reused.size() ? reused.get(w) :
+                    new TreeNode(Move.NONE, null, null, this.getExploration());
+            // Split generators here, as the generator split from is not thread safe
+            final SplittableRandom rand = this.random.split();
+            roots.add(this.getWorkers().submit(() -> {
+                TranspositionTable table = this.makeTranspositionTable();
+                NodeBudget budget = this.makeNodeBudget(root, this.threads);
+                SearchMetrics local = new SearchMetrics();
+                for(int i = 0; this.keepSearching(i, share, deadline); i++) {
+                    this.iterate(root, rootstate, rand, table, budget, local);
+                }
+                metrics.merge(local);
+                return root;
+            }));
+        }
+        // Merge the visit counts for each move made from the root
+        Map<Long, Integer> visits = new HashMap<>();
+        reused.clear();
+        for(Future<TreeNode> future : roots) {
+            TreeNode root = this.awaitWorker(future);
+            reused.add(root);
+            for(TreeNode child : root.getChildren()) {
+                visits.merge(child.getMove(), child.getVisits(), Integer::sum);
             }
+        }
+        return ISMCTS.mostVisited(visits, rootstate.getLegalMoves());
+    }
 
-            // Backpropagate
-            while (!Objects.isNull(node)) {
-                node.update(state.getState());
-                node = node.getParent();
+    private long treeParallelSearch(Game rootstate, long deadline, SearchMetrics metrics, List<TreeNode> reused) {
+        // All workers share one tree, and take iterations from a shared count until itermax have been started.
+        // Transpositions are not looked for, as the nodes of a shared tree are not shared between information sets.
+        if(reused.isEmpty()) {
+            reused.add(new ConcurrentTreeNode(Move.NONE, null, null, this.getExploration()));
+        }
+        TreeNode root = reused.get(0);
+        NodeBudget budget = this.makeNodeBudget(root, 1);
+        AtomicInteger started = new AtomicInteger(0);
+        List<Future<?>> running = new ArrayList<>();
+        for(int w = 0; w < this.threads; w++) {
+            final SplittableRandom rand = this.random.split();
+            running.add(this.getWorkers().submit(() -> {
+                SearchMetrics local = new SearchMetrics();
+                while(this.keepSearching(started.getAndIncrement(), this.itermax, deadline)) {
+                    this.iterate(root, rootstate, rand, null, budget, local);
+                }
+                metrics.merge(local);
+            }));
+        }
+        running.forEach(this::awaitWorker);
+        return ISMCTS.mostVisited(root, rootstate.getLegalMoves());
+    }
+
+    private long arenaSearch(Game rootstate, long deadline, SearchMetrics metrics) {
+        // Search with one arena tree per worker, running the workers as root parallel search does
+        while(this.arenas.size() < this.threads) {
+            this.arenas.add(new ArenaTree(this.getExploration()));
+        }
+        List<Future<ArenaTree>> trees = new ArrayList<>();
+        for(int w = 0; w < this.threads; w++) {
+            final int share = this.itermax / this.threads + (w < this.itermax % this.threads ? 1 : 0);
+            final ArenaTree tree = this.arenas.get(w);
+            // Arena trees cannot be pruned, so stop expanding them once full
+            final int limit = this.nodeBudget > 0 ? Math.max(1, this.nodeBudget / this.threads) : Integer.MAX_VALUE;
+            final SplittableRandom rand = this.random.split();
+            Callable<ArenaTree> search = () -> {
+                tree.clear();
+                SearchMetrics local = new SearchMetrics();
+                for(int i = 0; this.keepSearching(i, share, deadline); i++) {
+                    this.iterate(tree, rootstate, rand, limit, local);
+                }
+                metrics.merge(local);
+                return tree;
+            };
+            if(this.threads == 1) {
+                trees.add(CompletableFuture.completedFuture(this.runSearch(search)));
+            } else {
+                trees.add(this.getWorkers().submit(search));
             }
-            if(verbose) {
-                System.out.println("Iteration " + i + " of " + itermax);
+        }
+        // Merge the visit counts for each move made from the root
+        Map<Long, Integer> visits = new HashMap<>();
+        for(Future<ArenaTree> future : trees) {
+            ArenaTree tree = this.awaitWorker(future);
+            for(int child = tree.getFirstChild(ArenaTree.ROOT); child >= 0; child = tree.getNextSibling(child)) {
+                visits.merge(tree.getMove(child), tree.getVisits(child), Integer::sum);
             }
         }
-        String bestMoveString = root.getChildren().stream()
-                .max((a, b) -> Integer.compare(a.getVisits(), b.getVisits())).get().getMove();
-        Set<Game> nextStates = rootstate.getState().possibleGames(rootstate);
-        return nextStates.stream().filter(g -> g.getLastMove().equals(bestMoveString)).findFirst().get();
+        return ISMCTS.mostVisited(visits, rootstate.getLegalMoves());
     }
 
-    public static void main(String[] args) {
-        ISMCTS creature_iscmts = new ISMCTS(10000, false);
-        ISMCTS scientist_iscmts = new ISMCTS(10000, false);
-        int sciWin = 0;
-        int creWin = 0;
-        List<Game> endState = new ArrayList<>();
-        for(int i= 0; i < 20; i++) {
-            Game game = new Game();
-            while (!(game.getState() == GameState.SCIENTIST_WIN || game.getState() == GameState.CREATURE_WIN)) {
-                System.out.println(game);
-                PlayerType move = game.getState().playerToMove(game);
-                ISMCTS this_turn = move == PlayerType.SCIENTIST ? scientist_iscmts : creature_iscmts;
-                game = this_turn.selectMove(game);
-                game.setState(game.getState().nextState(game, game));
+    private static long mostVisited(TreeNode root, long[] legalMoves) {
+        Map<Long, Integer> visits = new HashMap<>();
+        for(TreeNode child : root.getChildren()) {
+            visits.merge(child.getMove(), child.getVisits(), Integer::sum);
+        }
+        return ISMCTS.mostVisited(visits, legalMoves);
+    }
+
+    private static long mostVisited(Map<Long, Integer> visits, long[] legalMoves) {
+        // The most visited move of those legal in the game searched. A reused tree can hold moves which were only
+        // legal in the determinizations it grew from, such as playing a card drawn in them but not in the game.
+        long best = legalMoves[0];
+        int bestVisits = -1;
+        for(long move : legalMoves) {
+            int moveVisits = visits.getOrDefault(move, 0);
+            if(moveVisits > bestVisits) {
+                best = move;
+                bestVisits = moveVisits;
             }
-            System.out.println(game);
-            if(game.getState() == GameState.SCIENTIST_WIN) {
-                sciWin++;
-            } else {
-                creWin++;
+        }
+        return best;
+    }
+
+    private <T> T runSearch(Callable<T> search) {
+        // Run a search on this thread
+        try {
+            return search.call();
+        } catch (Exception e) {
+            throw new IllegalStateException("Search failed", e);
+        }
+    }
+
+    public void stop() {
+        // Ask a running search to finish its current iterations and return the best move found so far. If no search
+        // is running, the next one stops as soon as it has a move.
+        this.stopRequested = true;
+    }
+
+    public void reset() {
+        // Forget the trees kept from the last search, as when the engine starts a new game
+        this.reusableRoots = null;
+        this.reusableHistory = null;
+        this.reusableFor = null;
+    }
+
+    private <T> T awaitWorker(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for search worker", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search worker failed", e.getCause());
+        }
+    }
+
+    private synchronized ExecutorService getWorkers() {
+        // Worker threads are created on first use and kept for later moves. They are daemon threads so an
+        // unfinished engine does not keep the JVM alive.
+        if(Objects.isNull(this.workers)) {
+            this.workers = Executors.newFixedThreadPool(this.threads, r -> {
+                Thread thread = new Thread(r, "ismcts-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return this.workers;
+    }
+
+    public synchronized void shutdown() {
+        if(!Objects.isNull(this.workers)) {
+            this.workers.shutdown();
+            this.workers = null;
+        }
+    }
+
+    private TranspositionTable makeTranspositionTable() {
+        // Each search, and each worker's tree, has a table of its own
+        if(this.transpositionTableSize <= 0) {
+            return null;
+        }
+        return new TranspositionTable(this.transpositionTableSize);
+    }
+
+    private NodeBudget makeNodeBudget(TreeNode root, int trees) {
+        // The budget is split evenly between the trees searched at once
+        if(this.nodeBudget <= 0) {
+            return null;
+        }
+        return new NodeBudget(Math.max(1, this.nodeBudget / trees), this.budgetPolicy, root, this.evictedNodes);
+    }
+
+    private void iterate(TreeNode root, Game rootstate, SplittableRandom rand, TranspositionTable table,
+                         NodeBudget budget, SearchMetrics metrics) {
+        TreeNode node = root;
+        long mark = System.nanoTime();
+        if(!Objects.isNull(budget)) {
+            budget.beforeIteration(root, table);
+            mark = metrics.lap(SearchMetrics.Phase.PRUNE, mark);
+        }
+        // Nodes can be reached by more than one parent, so record the path taken to backpropagate along
+        List<TreeNode> path = new ArrayList<>();
+        path.add(node);
+
+        // Randomise game state
+        PlayerType toMove = rootstate.getActivePlayerType();
+        Game state = rootstate.cloneAndRandomise(toMove, rand);
+        mark = metrics.lap(SearchMetrics.Phase.DETERMINIZE, mark);
+
+        // Select
+        long[] legalMoves;
+        long[] untriedMoves;
+        do {
+            legalMoves = state.getLegalMoves();
+            metrics.addBranching(state.getState(), legalMoves.length);
+            untriedMoves = node.getUntriedMoves(legalMoves);
+            if (!(legalMoves.length != 0 && untriedMoves.length == 0)) {
+                break;
+            }
+            node = node.selectChild(legalMoves);
+            state.makeMove(node.getMove());
+            path.add(node);
+        } while (true);
+        mark = metrics.lap(SearchMetrics.Phase.SELECT, mark);
+
+        // Expand, unless the tree is full
+        if (untriedMoves.length != 0 && (Objects.isNull(budget) || budget.canExpand())) {
+            // Determine player to move
+            PlayerType player = state.getState().playerToMove(state);
+            // Select a random move
+            long move = untriedMoves[rand.nextInt(untriedMoves.length)];
+            state.makeMove(move);
+            node = this.expand(node, move, player, state, toMove, table);
+            path.add(node);
+            if(!Objects.isNull(budget)) {
+                budget.added();
+            }
+        }
+        mark = metrics.lap(SearchMetrics.Phase.EXPAND, mark);
+
+        // Simulate
+        // Play randomly until a terminal state is reached. The determinized state belongs to this iteration, so
+        // moves are made on it in place.
+        int playout = 0;
+        while (!(state.getState() == GameState.CREATURE_WIN || state.getState() == GameState.SCIENTIST_WIN)) {
+            state.makeMove(state.sampleMove(rand));
+            playout++;
+        }
+        mark = metrics.lap(SearchMetrics.Phase.SIMULATE, mark);
+
+        // Backpropagate
+        for(TreeNode visited : path) {
+            visited.update(state.getState());
+        }
+        metrics.lap(SearchMetrics.Phase.BACKPROPAGATE, mark);
+        metrics.addIteration(path.size() - 1, playout);
+    }
+
+    private void iterate(ArenaTree tree, Game rootstate, SplittableRandom rand, int limit, SearchMetrics metrics) {
+        // As for a TreeNode tree
+        int node = ArenaTree.ROOT;
+        int depth = 0;
+        long mark = System.nanoTime();
+
+        // Randomise game state
+        PlayerType toMove = rootstate.getActivePlayerType();
+        Game state = rootstate.cloneAndRandomise(toMove, rand);
+        mark = metrics.lap(SearchMetrics.Phase.DETERMINIZE, mark);
+
+        // Select
+        long[] legalMoves;
+        int untried;
+        do {
+            legalMoves = state.getLegalMoves();
+            metrics.addBranching(state.getState(), legalMoves.length);
+            untried = tree.countUntriedMoves(node, legalMoves);
+            if (!(legalMoves.length != 0 && untried == 0)) {
+                break;
             }
-            System.out.println("Scientists: " + sciWin + ", Creature: " + creWin);
-            endState.add(game);
+            node = tree.selectChild(node, legalMoves);
+            state.makeMove(tree.getMove(node));
+            depth++;
+        } while (true);
+        mark = metrics.lap(SearchMetrics.Phase.SELECT, mark);
+
+        // Expand, unless the tree is full
+        if (untried != 0 && tree.size() < limit) {
+            PlayerType player = state.getState().playerToMove(state);
+            long move = tree.getUntriedMove(legalMoves, rand.nextInt(untried));
+            state.makeMove(move);
+            node = tree.addChild(node, move, player);
+            depth++;
         }
+        mark = metrics.lap(SearchMetrics.Phase.EXPAND, mark);
+
+        // Simulate
+        int playout = 0;
+        while (!(state.getState() == GameState.CREATURE_WIN || state.getState() == GameState.SCIENTIST_WIN)) {
+            state.makeMove(state.sampleMove(rand));
+            playout++;
+        }
+        mark = metrics.lap(SearchMetrics.Phase.SIMULATE, mark);
+
+        // Backpropagate
+        tree.backpropagate(node, state.getState());
+        metrics.lap(SearchMetrics.Phase.BACKPROPAGATE, mark);
+        metrics.addIteration(depth, playout);
+    }
+
+    private TreeNode expand(TreeNode node, long move, PlayerType player, Game state, PlayerType searcher,
+                            TranspositionTable table) {
+        // Add the child reached by a move, sharing the node of any other way to the same information set.
+        // Nodes record results for the player who just moved, so that is part of the key.
+        if(Objects.isNull(table)) {
+            return node.addChild(move, player);
+        }
+        long key = Zobrist.mix(state.getInformationSetKey(searcher), Objects.isNull(player) ? 0 : player.ordinal() + 1);
+        TreeNode existing = table.get(key);
+        if(!Objects.isNull(existing)) {
+            return node.addTransposition(move, existing);
+        }
+        TreeNode child = node.addChild(move, player);
+        table.put(key, child);
+        return child;
+    }
+
+    public static void main(String[] args) {
+        // Play 20 games of ISMCTS against itself, one at a time, each search using every processor
+        int threads = Runtime.getRuntime().availableProcessors();
+        Tournament tournament = new Tournament(20, 1, System.nanoTime(),
+                () -> new ISMCTS(10000, false, DEFAULT_EXPLORATION, threads),
+                () -> new ISMCTS(10000, false, DEFAULT_EXPLORATION, threads));
+        System.out.println(tournament.run());
     }
 
     public double getExploration() {
@@ -133,5 +551,123 @@ public class ISMCTS {
 
     public void setExploration(double exploration) {
         this.exploration = exploration;
+        // Arena trees are made with the exploration constant, so make new ones
+        this.arenas.clear();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public Parallelism getParallelism() {
+        return parallelism;
+    }
+
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    public void setTimeBudgetMillis(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    public int getTranspositionTableSize() {
+        return transpositionTableSize;
+    }
+
+    public void setTranspositionTableSize(int transpositionTableSize) {
+        this.transpositionTableSize = transpositionTableSize;
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    public void setStorage(Storage storage) {
+        if(storage == Storage.ARENA && this.threads > 1 && this.parallelism == Parallelism.TREE) {
+            throw new IllegalArgumentException("Arena trees cannot be used for tree parallel search");
+        }
+        this.storage = storage;
+    }
+
+    public void setSeed(long seed) {
+        // Make the searches which follow repeatable, for a fixed number of iterations and no tree parallelism
+        this.random = new SplittableRandom(seed);
+    }
+
+    public void setRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    public int getNodeBudget() {
+        return nodeBudget;
+    }
+
+    public void setNodeBudget(int nodeBudget) {
+        this.nodeBudget = nodeBudget;
+    }
+
+    public NodeBudget.Policy getBudgetPolicy() {
+        return budgetPolicy;
+    }
+
+    public void setBudgetPolicy(NodeBudget.Policy budgetPolicy) {
+        if(budgetPolicy == NodeBudget.Policy.PRUNE && this.threads > 1 && this.parallelism == Parallelism.TREE) {
+            throw new IllegalArgumentException("Trees cannot be pruned during tree parallel search");
+        }
+        this.budgetPolicy = budgetPolicy;
+    }
+
+    public long getEvictedNodes() {
+        // Nodes pruned to keep within the node budget, over all searches so far
+        return evictedNodes.get();
+    }
+
+    public int getLastTreeSize() {
+        // Nodes in the trees at the end of the last search
+        return lastTreeSize;
+    }
+
+    public List<TreeNode> getReusableRoots() {
+        // Roots of the last search's trees, kept to search from again, or null if they are not kept
+        return reusableRoots;
+    }
+
+    public boolean isReuseTree() {
+        return reuseTree;
+    }
+
+    public void setReuseTree(boolean reuseTree) {
+        this.reuseTree = reuseTree;
+        if(!reuseTree) {
+            this.reusableRoots = null;
+        }
+    }
+
+    public int getLastReusedVisits() {
+        // Visits already made to the root of the last search when it started, carried over from earlier searches
+        return lastReusedVisits;
+    }
+
+    public SearchMetrics getLastMetrics() {
+        // Metrics of the last search, with no iterations if the move needed no search
+        return lastMetrics;
+    }
+
+    public int getLastIterations() {
+        return lastIterations;
+    }
+
+    public synchronized Map<GameState, Long> getIterationsByState() {
+        return new EnumMap<>(iterationsByState);
+    }
+
+    public synchronized double getIterationsPerSecond(GameState state) {
+        // Mean search throughput over all moves searched from the given state
+        long nanos = this.searchNanosByState.getOrDefault(state, 0L);
+        if(nanos == 0) {
+            return 0;
+        }
+        return this.iterationsByState.getOrDefault(state, 0L) * 1e9 / nanos;
     }
 }
\ No newline at end of file
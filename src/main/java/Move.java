@@ -0,0 +1,53 @@
+public final class Move {
+    /***
+     * Packs a move into a single long, so the search tree can store and compare moves without building strings.
+     * Bits 56-63 hold the MoveType, 52-55 the player making the move, 48-51 the card played (if any), and the
+     * low 48 bits an argument whose meaning depends on the type of move.
+     */
+    public static final long NONE = 0L;
+    private static final long ARGUMENT_MASK = (1L << 48) - 1;
+    private static final String[] CARD_NAMES = {"", "MoveOneCard", "MoveAllCard", "SplitCard"};
+    private static final MoveType[] TYPES = MoveType.values();
+    private static final PlayerType[] PLAYERS = PlayerType.values();
+
+    private Move() {
+    }
+
+    public static long of(MoveType type, PlayerType player, int card, long argument) {
+        return ((long) type.ordinal() << 56)
+                | ((long) (player == null ? 0 : player.ordinal() + 1) << 52)
+                | ((long) card << 48)
+                | (argument & ARGUMENT_MASK);
+    }
+
+    public static long of(MoveType type, PlayerType player, long argument) {
+        return Move.of(type, player, 0, argument);
+    }
+
+    public static MoveType type(long move) {
+        return TYPES[(int) (move >>> 56)];
+    }
+
+    public static PlayerType player(long move) {
+        int player = (int) (move >>> 52) & 0xF;
+        return player == 0 ? null : PLAYERS[player - 1];
+    }
+
+    public static int card(long move) {
+        return (int) (move >>> 48) & 0xF;
+    }
+
+    public static long argument(long move) {
+        return move & ARGUMENT_MASK;
+    }
+
+    public static String describe(long move) {
+        // Human readable form of a move, for logging
+        PlayerType player = Move.player(move);
+        int card = Move.card(move);
+        return (player == null ? "" : player.name() + "|") +
+                Move.type(move).name() +
+                (card == 0 ? "" : "|" + CARD_NAMES[card]) +
+                "|" + Move.argument(move);
+    }
+}
@@ -1,45 +1,77 @@
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.SplittableRandom;
 
 public class MoveAllCard extends Card {
-    @Override
-    protected Set<Board> getPossibleMoves(Board currentBoard) {
-        return Arrays.stream(Color.values())
-                .map(c -> this.moveColor(c, currentBoard))
-                .flatMap(Set::stream)
-                .collect(Collectors.toSet());
+    // Moves are every cube of one colour from the active row onto the inactive row. The argument packs the colour
+    // in bits 0-1 and the offset in bit 2. Moving a colour which is not on the active row leaves the board as it
+    // was whichever colour and offset is given, so only one such move is listed: the first missing colour, offset 0.
+    public static final MoveAllCard INSTANCE = new MoveAllCard();
+    private static final Color[] COLORS = Color.values();
+
+    private MoveAllCard() {
     }
 
     @Override
-    protected Card makeCopy() {
-        return new MoveAllCard();
-    }
-
-    private Set<Board> moveColor(Color color, Board currentBoard) {
-        Set<Board> moves = new HashSet<>();
-        // An offset of 0 is equivalent to moving left, offset 1 to moving right
-        for(int offset : new int[] {0, 1}) {
-            Board moveBoard = new Board(currentBoard);
-            for(int i = 0; i < moveBoard.getActiveRowSpaces().size(); i++) {
-                Space space = moveBoard.getActiveRowSpaces().get(i);
-                // Remove any color cubes from active space
-                // First find them
-                List<Cube> moveCubes = space.getCubes()
-                        .stream()
-                        .filter(c -> c.getColor() == color)
-                        .collect(Collectors.toList());
-                // Now remove them
-                moveCubes.forEach(c -> space.removeCube(c));
-                // Put them on tile i+offset on the inactive row
-                Space moveTo = moveBoard.getInactiveRowSpaces().get(i+offset);
-                moveTo.addCubes(moveCubes);
+    protected void listMoves(Board currentBoard, long prefix, MoveList moves) {
+        int present = MoveAllCard.presentColors(currentBoard);
+        for(Color color : COLORS) {
+            if((present >> color.ordinal() & 1) == 0) {
+                continue;
+            }
+            // An offset of 0 is equivalent to moving left, offset 1 to moving right
+            for(int offset : new int[] {0, 1}) {
+                moves.add(prefix | color.ordinal() | (offset << 2));
             }
-            moves.add(moveBoard);
         }
-        return moves;
+        if(present != (1 << COLORS.length) - 1) {
+            moves.add(prefix | Integer.numberOfTrailingZeros(~present));
+        }
+    }
+
+    private static int presentColors(Board currentBoard) {
+        // Bit n is set if a cube of the color with ordinal n is anywhere on the active row
+        int mask = 0;
+        for(int i = 0; i < currentBoard.getSpaceCount(true); i++) {
+            mask |= currentBoard.getColorMask(true, i);
+        }
+        return mask;
+    }
+
+    @Override
+    protected long countMoves(Board currentBoard) {
+        int present = Integer.bitCount(MoveAllCard.presentColors(currentBoard));
+        return present * 2 + (present < COLORS.length ? 1 : 0);
+    }
+
+    @Override
+    protected long sampleMove(Board currentBoard, long prefix, SplittableRandom random) {
+        int present = MoveAllCard.presentColors(currentBoard);
+        int r = random.nextInt((int) this.countMoves(currentBoard));
+        if(r >= Integer.bitCount(present) * 2) {
+            return prefix | Integer.numberOfTrailingZeros(~present);
+        }
+        // Skip past the colors before the chosen one
+        for(int skip = r / 2; skip > 0; skip--) {
+            present &= present - 1;
+        }
+        return prefix | Integer.numberOfTrailingZeros(present) | ((r % 2) << 2);
+    }
+
+    @Override
+    protected void applyMove(Board board, long argument) {
+        Color color = COLORS[(int) argument & 0x3];
+        int offset = (int) (argument >> 2) & 0x1;
+        for(int i = 0; i < board.getSpaceCount(true); i++) {
+            // Remove any color cubes from active space
+            int count = board.getCubeCount(true, i, color);
+            board.removeCubes(true, i, color, count);
+            // Put them on tile i+offset on the inactive row
+            board.addCubes(false, i + offset, color, count);
+        }
+    }
+
+    @Override
+    protected int getCardId() {
+        return 2;
     }
 
     @Override
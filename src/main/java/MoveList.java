@@ -0,0 +1,53 @@
+import java.util.Arrays;
+
+public class MoveList {
+    /***
+     * Growable list of packed Move ids, so listing moves does not box every id.
+     */
+    private long[] moves;
+    private int size;
+
+    public MoveList() {
+        this(16);
+    }
+
+    public MoveList(int capacity) {
+        this.moves = new long[Math.max(capacity, 1)];
+        this.size = 0;
+    }
+
+    public void add(long move) {
+        if(this.size == this.moves.length) {
+            this.moves = Arrays.copyOf(this.moves, this.size * 2);
+        }
+        this.moves[this.size++] = move;
+    }
+
+    public long get(int idx) {
+        if(idx < 0 || idx >= this.size) {
+            throw new IndexOutOfBoundsException("Move index out of bounds");
+        }
+        return this.moves[idx];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    public long[] toSortedArray() {
+        // Sorted and with duplicates removed, as TreeNode expects legal moves to be
+        long[] sorted = Arrays.copyOf(this.moves, this.size);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for(int i = 0; i < sorted.length; i++) {
+            if(i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct);
+    }
+}
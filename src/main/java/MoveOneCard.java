@@ -1,39 +1,103 @@
-import java.util.HashSet;
-import java.util.Set;
+import java.util.SplittableRandom;
 
 public class MoveOneCard extends Card {
+    // Moves are one cube a knight move left (-1) or right (+2) onto the inactive row. Cubes of a color on a space are
+    // interchangeable, so there is one move for each color on a space, not each cube. The argument packs the space
+    // index in bits 0-3, the ordinal of the cube's color in bits 4-7, and direction in bit 8.
+    public static final MoveOneCard INSTANCE = new MoveOneCard();
+    private static final int[] OFFSETS = new int[] {-1, 2};
+    private static final Color[] COLORS = Color.values();
+
+    private MoveOneCard() {
+    }
+
     @Override
-    protected Set<Board> getPossibleMoves(Board currentBoard) {
-        Set<Board> moves = new HashSet<>();
-        // Attempt to move every cube both left and right one knight move
+    protected void listMoves(Board currentBoard, long prefix, MoveList moves) {
+        // Attempt to move a cube of every color both left and right one knight move
         // Loop through all spaces
-        for(int i = 0; i < currentBoard.getActiveRowSpaces().size(); i++) {
-            // Loop through all cubes on this space
-            for(Cube cube : currentBoard.getActiveRowSpaces().get(i).getCubes()) {
+        int targets = currentBoard.getSpaceCount(false);
+        for(int i = 0; i < currentBoard.getSpaceCount(true); i++) {
+            // Loop through the colors on this space
+            int colors = currentBoard.getColorMask(true, i);
+            for(int c = 0; c < COLORS.length; c++) {
+                if((colors >> c & 1) == 0) {
+                    continue;
+                }
                 // Attempt a left and right move
-                for(int offset : new int[] {-1, 2}) {
+                for(int d = 0; d < OFFSETS.length; d++) {
                     // Determine the target space in inactive row
-                    int iTarget = i + offset;
-                    // If target space exists, make move
-                    if(iTarget > -1 && iTarget < currentBoard.getInactiveRowSpaces().size()) {
-                        // Clone board
-                        Board moveBoard = new Board(currentBoard);
-                        Space space = moveBoard.getActiveRowSpaces().get(i);
-                        // Remove the target cube
-                        space.removeCube(cube);
-                        // Place on target space
-                        moveBoard.getInactiveRowSpaces().get(iTarget).addCube(cube);
-                        moves.add(moveBoard);
+                    int iTarget = i + OFFSETS[d];
+                    // If target space exists, it is a possible move
+                    if(iTarget > -1 && iTarget < targets) {
+                        moves.add(prefix | i | (c << 4) | (d << 8));
                     }
                 }
             }
         }
-        return moves;
     }
 
     @Override
-    protected Card makeCopy() {
-        return new MoveOneCard();
+    protected long countMoves(Board currentBoard) {
+        long count = 0;
+        for(int i = 0; i < currentBoard.getSpaceCount(true); i++) {
+            count += Integer.bitCount(currentBoard.getColorMask(true, i)) * this.countDirections(currentBoard, i);
+        }
+        return count;
+    }
+
+    private int countDirections(Board currentBoard, int space) {
+        // Directions a cube on a space can move in without leaving the inactive row
+        int count = 0;
+        for(int offset : OFFSETS) {
+            if(space + offset > -1 && space + offset < currentBoard.getSpaceCount(false)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    protected long sampleMove(Board currentBoard, long prefix, SplittableRandom random) {
+        // Number the moves as listMoves lists them, and find the space, color and direction of a random one
+        long r = random.nextLong(this.countMoves(currentBoard));
+        for(int i = 0; i < currentBoard.getSpaceCount(true); i++) {
+            int colors = currentBoard.getColorMask(true, i);
+            int directions = this.countDirections(currentBoard, i);
+            long moves = Integer.bitCount(colors) * directions;
+            if(r >= moves) {
+                r -= moves;
+                continue;
+            }
+            // Skip past the colors on the space before the chosen one
+            for(int skip = (int) (r / directions); skip > 0; skip--) {
+                colors &= colors - 1;
+            }
+            int c = Integer.numberOfTrailingZeros(colors);
+            int skip = (int) (r % directions);
+            for(int d = 0; d < OFFSETS.length; d++) {
+                int iTarget = i + OFFSETS[d];
+                if(iTarget > -1 && iTarget < currentBoard.getSpaceCount(false) && skip-- == 0) {
+                    return prefix | i | (c << 4) | (d << 8);
+                }
+            }
+        }
+        throw new IllegalStateException("No cube can be moved");
+    }
+
+    @Override
+    protected void applyMove(Board board, long argument) {
+        int i = (int) argument & 0xF;
+        Color color = COLORS[(int) (argument >> 4) & 0xF];
+        int d = (int) (argument >> 8) & 0x1;
+        // Remove a cube of the color
+        board.removeCubes(true, i, color, 1);
+        // Place on target space
+        board.addCubes(false, i + OFFSETS[d], color, 1);
+    }
+
+    @Override
+    protected int getCardId() {
+        return 1;
     }
 
     @Override
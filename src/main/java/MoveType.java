@@ -0,0 +1,14 @@
+public enum MoveType {
+    // The kinds of move which can be packed into a Move. NONE is first, so an empty move packs to 0.
+    NONE,
+    DRAW,
+    CARD,
+    WILDCARD,
+    CREATURE_UPDATE,
+    SCIENTIST_DROP,
+    FREE_PLACE,
+    PLACE_TILES,
+    TAKE_TOKEN,
+    PASS,
+    TIEBREAK
+}
@@ -0,0 +1,115 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class NodeBudget {
+    /***
+     * Limits the number of nodes in one search tree.
+     * Nodes are counted as they are added. Once the limit is reached, either no more nodes are added, or the least
+     * visited subtrees are pruned until the tree is back under the limit. Pruned moves count as untried again, so
+     * can be expanded afresh. The children of the root are never pruned, as the move is chosen from them.
+     */
+    public enum Policy {STOP_EXPANSION, PRUNE};
+    // Share of the limit a tree is pruned down to, so pruning does not happen every iteration
+    private static final double PRUNE_TO = 0.75;
+    private final int limit;
+    private final Policy policy;
+    private final AtomicInteger count;
+    private final AtomicLong evicted;
+
+    public NodeBudget(int limit, Policy policy, TreeNode root, AtomicLong evicted) {
+        if(limit < 1) {
+            throw new IllegalArgumentException("Node budget must be at least 1");
+        }
+        this.limit = limit;
+        this.policy = policy;
+        this.count = new AtomicInteger(NodeBudget.countNodes(root));
+        this.evicted = evicted;
+    }
+
+    public int getCount() {
+        return this.count.get();
+    }
+
+    public void added() {
+        this.count.incrementAndGet();
+    }
+
+    public boolean canExpand() {
+        return this.count.get() < this.limit;
+    }
+
+    public void beforeIteration(TreeNode root, TranspositionTable table) {
+        // Prune a full tree before descending it. Nothing stops other threads descending the tree while it is
+        // pruned, so a pruning budget must only be used by the one thread searching its tree.
+        if(this.policy != Policy.PRUNE || this.canExpand()) {
+            return;
+        }
+        int target = (int) (this.limit * PRUNE_TO);
+        for(int threshold = 1; this.count.get() > target; threshold *= 2) {
+            int cut = NodeBudget.prune(root, threshold);
+            int size = NodeBudget.countNodes(root);
+            this.evicted.addAndGet(Math.max(0, this.count.get() - size));
+            this.count.set(size);
+            if(cut == 0 && threshold > root.getVisits()) {
+                // Nothing left to prune below the root's children
+                break;
+            }
+        }
+        if(table != null) {
+            // Let pruned nodes go, rather than keeping them to be found by transposition
+            table.clear();
+        }
+    }
+
+    private static int prune(TreeNode root, int threshold) {
+        // Remove every subtree below the root's children whose node has been visited no more than threshold times,
+        // returning the number of subtrees removed. A transposition shares its children with the node it was made
+        // from, so each list of children is pruned once, from whichever of the nodes sharing it is reached first.
+        // Children still reachable through a transposition are pruned there even if the node they came from is gone.
+        int removed = 0;
+        Set<TreeNode> pruned = Collections.newSetFromMap(new IdentityHashMap<>());
+        pruned.add(root.getShared());
+        Deque<TreeNode> stack = new ArrayDeque<>(root.getChildren());
+        while(!stack.isEmpty()) {
+            TreeNode node = stack.pop().getShared();
+            if(!pruned.add(node)) {
+                continue;
+            }
+            List<TreeNode> cut = new ArrayList<>();
+            for(TreeNode child : node.getChildren()) {
+                if(child.getVisits() <= threshold) {
+                    cut.add(child);
+                } else {
+                    stack.push(child);
+                }
+            }
+            node.getChildren().removeAll(cut);
+            removed += cut.size();
+        }
+        return removed;
+    }
+
+    public static int countNodes(TreeNode root) {
+        // Number of nodes reachable from the root. A transposition is one node, and the children it shares with the
+        // node it was made from are counted once, whether that node is still in the tree or not.
+        int count = 0;
+        Set<TreeNode> expanded = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<TreeNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while(!stack.isEmpty()) {
+            TreeNode node = stack.pop();
+            count++;
+            if(expanded.add(node.getShared())) {
+                node.getShared().getChildren().forEach(stack::push);
+            }
+        }
+        return count;
+    }
+}
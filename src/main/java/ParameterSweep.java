@@ -0,0 +1,220 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+public class ParameterSweep {
+    /***
+     * Plays a self-play tournament for every combination of a set of rule parameter ranges, and tabulates the
+     * scientist's win rate for each.
+     * All the tournaments' games are queued on one pool of threads, so configurations run in parallel and no thread
+     * is started per configuration. Each thread builds one pair of engines and reuses it for every game of every
+     * configuration it plays. Every configuration is played from the same seeds, so differences between rows come
+     * from the rules rather than from the deal. With a stopping rule, each configuration plays up to its number of
+     * games, stopping once the rule settles whether it is balanced, and the pool moves on to the others.
+     */
+    public enum Parameter {
+        SCIENTIST_HAND_LIMIT(r -> r.getScientist().getHandLimit(), (r, v) -> r.getScientist().setHandLimit(v)),
+        SCIENTIST_STARTING_HAND(r -> r.getScientist().getStartingHand(), (r, v) -> r.getScientist().setStartingHand(v)),
+        SCIENTIST_MOVE_ALL(r -> r.getScientist().getMoveAll(), (r, v) -> r.getScientist().setMoveAll(v)),
+        SCIENTIST_MOVE_ONE(r -> r.getScientist().getMoveOne(), (r, v) -> r.getScientist().setMoveOne(v)),
+        SCIENTIST_SPLIT(r -> r.getScientist().getSplit(), (r, v) -> r.getScientist().setSplit(v)),
+        CREATURE_HAND_LIMIT(r -> r.getCreature().getHandLimit(), (r, v) -> r.getCreature().setHandLimit(v)),
+        CREATURE_STARTING_HAND(r -> r.getCreature().getStartingHand(), (r, v) -> r.getCreature().setStartingHand(v)),
+        CREATURE_MOVE_ALL(r -> r.getCreature().getMoveAll(), (r, v) -> r.getCreature().setMoveAll(v)),
+        CREATURE_MOVE_ONE(r -> r.getCreature().getMoveOne(), (r, v) -> r.getCreature().setMoveOne(v)),
+        CREATURE_SPLIT(r -> r.getCreature().getSplit(), (r, v) -> r.getCreature().setSplit(v)),
+        BOARD_WIDTH(Rules::getBoardWidth, Rules::setBoardWidth),
+        DECK_SIZE(Rules::getDeckSize, Rules::setDeckSize),
+        TOKEN_TILES(Rules::getTokenTiles, Rules::setTokenTiles),
+        LEFT_BLUE(Board.Side.LEFT, Color.BLUE),
+        LEFT_GREEN(Board.Side.LEFT, Color.GREEN),
+        LEFT_ORANGE(Board.Side.LEFT, Color.ORANGE),
+        RIGHT_BLUE(Board.Side.RIGHT, Color.BLUE),
+        RIGHT_GREEN(Board.Side.RIGHT, Color.GREEN),
+        RIGHT_ORANGE(Board.Side.RIGHT, Color.ORANGE);
+
+        private final ToIntFunction<Rules> getter;
+        private final ObjIntConsumer<Rules> setter;
+
+        Parameter(ToIntFunction<Rules> getter, ObjIntConsumer<Rules> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        Parameter(Board.Side side, Color color) {
+            // The number of cubes of a color a side starts with
+            this(r -> r.getCubeCount(side, color), (r, v) -> r.setCubeCount(side, color, v));
+        }
+
+        public int get(Rules rules) {
+            return this.getter.applyAsInt(rules);
+        }
+
+        public void set(Rules rules, int value) {
+            this.setter.accept(rules, value);
+        }
+    }
+
+    private final Rules base;
+    private final Map<Parameter, int[]> ranges;
+    private final int games;
+    private final int threads;
+    private final long seed;
+    private final ThreadLocal<ISMCTS> scientist;
+    private final ThreadLocal<ISMCTS> creature;
+    private BalanceSprt stoppingRule;
+
+    public ParameterSweep(Rules base, int games, int threads, long seed, Supplier<ISMCTS> scientist,
+                          Supplier<ISMCTS> creature) {
+        if(games < 1 || threads < 1) {
+            throw new IllegalArgumentException("Game and thread counts must be at least 1");
+        }
+        this.base = new Rules(base);
+        this.ranges = new EnumMap<>(Parameter.class);
+        this.games = games;
+        this.threads = threads;
+        this.seed = seed;
+        this.scientist = ThreadLocal.withInitial(scientist);
+        this.creature = ThreadLocal.withInitial(creature);
+    }
+
+    public void addRange(Parameter parameter, int from, int to, int step) {
+        // Sweep a parameter over from, from + step, ... up to and including to
+        if(step < 1 || to < from) {
+            throw new IllegalArgumentException("Range of " + parameter + " must step upwards");
+        }
+        int[] values = new int[(to - from) / step + 1];
+        for(int i = 0; i < values.length; i++) {
+            values[i] = from + i * step;
+        }
+        this.ranges.put(parameter, values);
+    }
+
+    public void setStoppingRule(BalanceSprt stoppingRule) {
+        this.stoppingRule = stoppingRule;
+    }
+
+    public List<Rules> configurations() {
+        // Every combination of the swept values, applied to the base rules. Combinations which do not make a game
+        // that can be set up, such as more token tiles than the deck can hold, are left out.
+        List<Rules> configurations = new ArrayList<>();
+        configurations.add(new Rules(this.base));
+        for(Map.Entry<Parameter, int[]> range : this.ranges.entrySet()) {
+            List<Rules> next = new ArrayList<>();
+            for(Rules rules : configurations) {
+                for(int value : range.getValue()) {
+                    Rules variant = new Rules(rules);
+                    range.getKey().set(variant, value);
+                    next.add(variant);
+                }
+            }
+            configurations = next;
+        }
+        configurations.removeIf(rules -> !ParameterSweep.isValid(rules));
+        return configurations;
+    }
+
+    private static boolean isValid(Rules rules) {
+        try {
+            rules.validate();
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public List<Row> run() {
+        ExecutorService workers = Executors.newFixedThreadPool(this.threads, r -> {
+            Thread thread = new Thread(r, "sweep-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // Queue the games of every configuration before waiting on any, so the pool never runs dry between them
+            List<Rules> configurations = this.configurations();
+            List<Tournament.Pending> results = new ArrayList<>();
+            for(Rules rules : configurations) {
+                Tournament tournament = new Tournament(this.games, this.threads, this.seed, this.scientist::get,
+                        this.creature::get);
+                tournament.setRules(rules);
+                tournament.setStoppingRule(this.stoppingRule);
+                results.add(tournament.submit(workers));
+            }
+            List<Row> rows = new ArrayList<>();
+            for(int i = 0; i < configurations.size(); i++) {
+                rows.add(new Row(configurations.get(i), results.get(i).await()));
+            }
+            return rows;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    public void writeTable(List<Row> rows, Appendable out) throws IOException {
+        // Tab separated, with a column for each swept parameter, then the results
+        List<Parameter> swept = new ArrayList<>(this.ranges.keySet());
+        for(Parameter parameter : swept) {
+            out.append(parameter.name().toLowerCase()).append('\t');
+        }
+        out.append("games\tscientist_wins\tcreature_wins\tscientist_win_rate\tci_low\tci_high");
+        out.append(Objects.isNull(this.stoppingRule) ? "\n" : "\tverdict\n");
+        for(Row row : rows) {
+            for(Parameter parameter : swept) {
+                out.append(Integer.toString(parameter.get(row.getRules()))).append('\t');
+            }
+            Tournament.Result result = row.getResult();
+            double[] interval = result.confidenceInterval(PlayerType.SCIENTIST, Tournament.DEFAULT_CONFIDENCE);
+            out.append(String.format("%d\t%d\t%d\t%.4f\t%.4f\t%.4f", result.getGames(), result.getScientistWins(),
+                    result.getCreatureWins(), result.winRate(PlayerType.SCIENTIST), interval[0], interval[1]));
+            out.append(Objects.isNull(result.getVerdict()) ? "\n" : "\t" + result.getVerdict() + "\n");
+        }
+    }
+
+    public static class Row {
+        private final Rules rules;
+        private final Tournament.Result result;
+
+        public Row(Rules rules, Tournament.Result result) {
+            this.rules = rules;
+            this.result = result;
+        }
+
+        public Rules getRules() {
+            return rules;
+        }
+
+        public Tournament.Result getResult() {
+            return result;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        // Arguments: games per configuration, iterations per move, then ranges as PARAMETER=from:to[:step], and
+        // optionally STOP=margin to stop each configuration once it is shown balanced or one sided by margin
+        // e.g. 2000 1000 DECK_SIZE=15:19 SCIENTIST_SPLIT=3:6 STOP=0.05
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long seed = System.nanoTime();
+        ParameterSweep sweep = new ParameterSweep(new Rules(), games, Runtime.getRuntime().availableProcessors(), seed,
+                () -> new ISMCTS(iterations, false), () -> new ISMCTS(iterations, false));
+        for(int i = 2; i < args.length; i++) {
+            String[] range = args[i].split("[=:]");
+            if(range[0].equals("STOP")) {
+                sweep.setStoppingRule(new BalanceSprt(Double.parseDouble(range[1])));
+                continue;
+            }
+            sweep.addRange(Parameter.valueOf(range[0]), Integer.parseInt(range[1]), Integer.parseInt(range[2]),
+                    range.length > 3 ? Integer.parseInt(range[3]) : 1);
+        }
+        System.out.println("# seed " + seed);
+        sweep.writeTable(sweep.run(), System.out);
+    }
+}
@@ -1,18 +1,16 @@
 import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import static javafx.scene.input.KeyCode.T;
-
 public class Player {
     // Represents things one of the player has
     private int handLimit;
@@ -23,20 +21,26 @@ public class Player {
     private boolean wildcardReady;
 
     public Player(int cardMoveOne, int cardMoveAll, int cardSplit, int handLimit, boolean wildcardReady, int tokens,
-                  int startingHandsize) {
+                  int startingHandsize, SplittableRandom random) {
         this.handLimit = handLimit;
         this.tokens = tokens;
         this.wildcardReady = wildcardReady;
         // Set up deck and draw starting cards
         this.deck = new Deck<>();
-        this.deck.addToDeck(IntStream.range(0, cardMoveAll).mapToObj(i -> new MoveAllCard()).collect(Collectors.toList()));
-        this.deck.addToDeck(IntStream.range(0, cardMoveOne).mapToObj(i -> new MoveOneCard()).collect(Collectors.toList()));
-        this.deck.addToDeck(IntStream.range(0, cardSplit).mapToObj(i -> new SplitCard()).collect(Collectors.toList()));
+        this.deck.addToDeck(Collections.nCopies(cardMoveAll, MoveAllCard.INSTANCE));
+        this.deck.addToDeck(Collections.nCopies(cardMoveOne, MoveOneCard.INSTANCE));
+        this.deck.addToDeck(Collections.nCopies(cardSplit, SplitCard.INSTANCE));
         // A new player should shuffle their deck - don't do this with a copy constructor
-        this.deck.shuffleDeck();
+        this.deck.shuffleDeck(random);
         this.hand = new Deck<>();
         // Draw starting hand
-        this.drawCards(startingHandsize);
+        this.drawCards(startingHandsize, random);
+    }
+
+    public Player(int cardMoveOne, int cardMoveAll, int cardSplit, int handLimit, boolean wildcardReady, int tokens,
+                  int startingHandsize) {
+        this(cardMoveOne, cardMoveAll, cardSplit, handLimit, wildcardReady, tokens, startingHandsize,
+                new SplittableRandom());
     }
 
     public Player(Player player) {
@@ -44,16 +48,23 @@ public class Player {
         this.handLimit = player.handLimit;
         this.wildcardReady = player.wildcardReady;
         this.tokens = player.tokens;
-        this.deck = new Deck<>();
-        this.hand = new Deck<>();
-        player.deck.getItems().forEach(c -> this.deck.addToDeck(c.makeCopy()));
-        player.deck.getDiscard().forEach(c -> this.deck.getDiscard().add(c.makeCopy()));
-        player.hand.getItems().forEach(c -> this.hand.addToDeck(c.makeCopy()));
+        // Cards hold no state, so the copies can share them
+        this.deck = new Deck<>(player.deck);
+        this.hand = new Deck<>(player.hand);
     }
 
-    public Player(PlayerType type) {
+    public Player(PlayerType type, SplittableRandom random) {
         this(type.getMoveOne(), type.getMoveAll(), type.getSplit(), type.getHandLimit(), type.isWildcardReady(),
-                0, type.getStartingHand());
+                0, type.getStartingHand(), random);
+    }
+
+    public Player(Rules.PlayerRules rules, SplittableRandom random) {
+        this(rules.getMoveOne(), rules.getMoveAll(), rules.getSplit(), rules.getHandLimit(), rules.isWildcardReady(),
+                0, rules.getStartingHand(), random);
+    }
+
+    public Player(PlayerType type) {
+        this(type, new SplittableRandom());
     }
 
     public int getHandLimit() {
@@ -101,7 +112,7 @@ public class Player {
         this.wildcardReady = wildcardReady;
     }
 
-    public List<Card> drawCards(int n) {
+    public List<Card> drawCards(int n, SplittableRandom random) {
         // Determine how many required to draw, if would draw above hand limit, draw to instead
         int n_draw = Math.min(n, this.handLimit - this.hand.size());
         // Draw n cards. If deck has less than n, draw, shuffle, draw
@@ -109,32 +120,50 @@ public class Player {
         int firstDraw = Math.min(this.deck.size(), n_draw);
         List<Card> drawn = this.deck.draw(firstDraw);
         if (firstDraw < n_draw) {
-            this.deck.shuffleDeckAndDiscards();
+            this.deck.shuffleDeckAndDiscards(random);
             drawn.addAll(this.deck.draw(n_draw - firstDraw));
         }
         this.hand.addToDeck(drawn);
         return drawn;
     }
 
+    public void drawCard(SplittableRandom random) {
+        // Draw a single card into hand, as drawCards(1) but without building a list of the card drawn
+        if(this.hand.size() >= this.handLimit) {
+            return;
+        }
+        if(this.deck.size() == 0) {
+            this.deck.shuffleDeckAndDiscards(random);
+        }
+        if(this.deck.size() > 0) {
+            this.hand.addToDeck(this.deck.draw());
+        }
+    }
+
+    public void playCard(Card card) {
+        // Move a card from hand to the discard pile
+        this.hand.remove(card);
+        this.deck.discard(card);
+    }
+
     public List<Card> uniqueCards() {
-        return new ArrayList(
-                this.hand.getItems().stream().collect(Collectors.toMap(Card::toString, p -> p, (p, q) -> p)).values()
-        );
+        // Cards of a kind are the same card
+        return this.hand.getItems().stream().distinct().collect(Collectors.toList());
     }
 
-    public Player cloneAndRandomise(boolean incldueHand) {
+    public Player cloneAndRandomise(boolean incldueHand, SplittableRandom random) {
         // Pool all the card which are not visible to the player being considered
         // includeHand indicates whether to shuffle hand and deck together
         int handSize = this.getHand().size();
         int deckSize = this.getDeck().size();
-        // Copy cards into a list to be redealt
-        List<Card> cards = this.getDeck().getItems().stream().map(Card::makeCopy).collect(Collectors.toList());
+        // List the cards to be redealt
+        List<Card> cards = new ArrayList<>(this.getDeck().getItems());
         if(incldueHand) {
-            cards.addAll(this.getHand().getItems().stream().map(Card::makeCopy).collect(Collectors.toList()));
+            cards.addAll(this.getHand().getItems());
         }
         Player clone = new Player(this);
         // Shuffle the pooled unseen cards
-        Collections.shuffle(cards);
+        Deck.shuffle(cards, random);
         // Make a new list of card for the deck
         List<Card> newDeck = IntStream.range(0, deckSize).mapToObj(cards::get).collect(Collectors.toList());
         clone.getDeck().setItems(newDeck);
@@ -165,6 +194,9 @@ public class Player {
 
         Player player = (Player) o;
 
+        // Players with different keys differ, so only compare hands and decks when keys match
+        if (this.getKey() != player.getKey()) return false;
+
         return new EqualsBuilder()
                 .append(handLimit, player.handLimit)
                 .append(tokens, player.tokens)
@@ -176,12 +208,23 @@ public class Player {
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder(17, 37)
-                .append(handLimit)
-                .append(deck)
-                .append(hand)
-                .append(tokens)
-                .append(wildcardReady)
-                .toHashCode();
+        return Long.hashCode(this.getKey());
+    }
+
+    public long getPublicKey() {
+        // Key of what another player can see of this player: the cards they have played, the number of cards in
+        // their hand and deck, but not which cards are in each. As cards are never seen leaving the game, the cards
+        // in hand and deck together are known.
+        return Zobrist.mix(this.hand.getItemsKey() + this.deck.getItemsKey()) ^
+                Zobrist.mix(this.deck.getDiscardKey(), Zobrist.DISCARD_PILE) ^
+                Zobrist.mix(((long) this.hand.size() << 32) | this.deck.size(), Zobrist.HAND) ^
+                Zobrist.mix(((long) this.handLimit << 32) | ((long) this.tokens << 1) | (this.wildcardReady ? 1 : 0));
+    }
+
+    public long getKey() {
+        // Zobrist key of the player, from the keys of their cards and their other fields
+        return Zobrist.mix(this.deck.getKey()) ^
+                Zobrist.mix(this.hand.getKey(), Zobrist.HAND) ^
+                Zobrist.mix(((long) this.handLimit << 32) | ((long) this.tokens << 1) | (this.wildcardReady ? 1 : 0));
     }
 }
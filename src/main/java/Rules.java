@@ -0,0 +1,230 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class Rules {
+    /***
+     * The rule parameters a game is set up from: each side's cards and hand, the size of the board and tile deck, and
+     * the cubes each side starts with. The defaults are the rules of the game as published.
+     * Games share the rules they were made from, so rules should not be changed once a game has been made from them.
+     */
+    private PlayerRules scientist;
+    private PlayerRules creature;
+    private int boardWidth;
+    private int deckSize;
+    private int tokenTiles;
+    private List<Color> leftCubes;
+    private List<Color> rightCubes;
+
+    public Rules(PlayerType scientist, PlayerType creature, int boardWidth, int deckSize, int tokenTiles,
+                 List<Color> leftCubes, List<Color> rightCubes) {
+        this.scientist = new PlayerRules(scientist);
+        this.creature = new PlayerRules(creature);
+        this.boardWidth = boardWidth;
+        this.deckSize = deckSize;
+        this.tokenTiles = tokenTiles;
+        this.leftCubes = new ArrayList<>(leftCubes);
+        this.rightCubes = new ArrayList<>(rightCubes);
+    }
+
+    public Rules() {
+        this(Game.DEFAULT_SCIENTIST, Game.DEFAULT_CREATURE, Board.DEFAULT_MAX_WIDTH, Game.DEFAULT_DECK_SIZE,
+                Game.DEFAULT_TOKEN_TILES, Game.DEFAULT_LEFTCUBES, Game.DEFUALT_RIGHTCUBES);
+    }
+
+    public Rules(Rules rules) {
+        // Copy constructor, so a copy can be changed without changing the rules of games already made
+        this.scientist = new PlayerRules(rules.scientist);
+        this.creature = new PlayerRules(rules.creature);
+        this.boardWidth = rules.boardWidth;
+        this.deckSize = rules.deckSize;
+        this.tokenTiles = rules.tokenTiles;
+        this.leftCubes = new ArrayList<>(rules.leftCubes);
+        this.rightCubes = new ArrayList<>(rules.rightCubes);
+    }
+
+    public PlayerRules getPlayer(PlayerType player) {
+        return player == PlayerType.SCIENTIST ? this.scientist : this.creature;
+    }
+
+    public PlayerRules getScientist() {
+        return scientist;
+    }
+
+    public PlayerRules getCreature() {
+        return creature;
+    }
+
+    public int getBoardWidth() {
+        return boardWidth;
+    }
+
+    public void setBoardWidth(int boardWidth) {
+        this.boardWidth = boardWidth;
+    }
+
+    public int getDeckSize() {
+        return deckSize;
+    }
+
+    public void setDeckSize(int deckSize) {
+        this.deckSize = deckSize;
+    }
+
+    public int getTokenTiles() {
+        return tokenTiles;
+    }
+
+    public void setTokenTiles(int tokenTiles) {
+        this.tokenTiles = tokenTiles;
+    }
+
+    public int getUnseenTiles() {
+        // Tiles which start in the deck rather than on the board, whose order neither player knows
+        return this.deckSize - this.boardWidth;
+    }
+
+    public List<Color> getCubes(Board.Side side) {
+        return Collections.unmodifiableList(side == Board.Side.LEFT ? this.leftCubes : this.rightCubes);
+    }
+
+    public int getCubeCount(Board.Side side, Color color) {
+        return (int) this.getCubes(side).stream().filter(c -> c == color).count();
+    }
+
+    public void setCubeCount(Board.Side side, Color color, int count) {
+        // Replace the side's cubes of a color with count of them, keeping the other colors
+        List<Color> cubes = side == Board.Side.LEFT ? this.leftCubes : this.rightCubes;
+        cubes.removeIf(c -> c == color);
+        cubes.addAll(Collections.nCopies(count, color));
+    }
+
+    public void validate() {
+        // Check the rules make a game which can be set up
+        if(this.boardWidth < 2 || this.boardWidth > Board.MAX_PACKED_WIDTH) {
+            throw new IllegalArgumentException("Board width must be between 2 and " + Board.MAX_PACKED_WIDTH);
+        }
+        if(this.tokenTiles < 0 || this.getUnseenTiles() < this.tokenTiles) {
+            throw new IllegalArgumentException("Deck of " + this.deckSize + " tiles cannot hold " + this.tokenTiles +
+                    " token tiles below a board of width " + this.boardWidth);
+        }
+        for(Color color : Color.values()) {
+            int count = this.getCubeCount(Board.Side.LEFT, color) + this.getCubeCount(Board.Side.RIGHT, color);
+            if(count > Board.MAX_CUBES_OF_COLOR) {
+                throw new IllegalArgumentException("Cannot have more than " + Board.MAX_CUBES_OF_COLOR + " " +
+                        color + " cubes");
+            }
+        }
+        this.scientist.validate();
+        this.creature.validate();
+    }
+
+    @Override
+    public String toString() {
+        return "Rules\t" +
+                "scientist=" + scientist +
+                "\tcreature=" + creature +
+                "\tboardWidth=" + boardWidth +
+                "\tdeckSize=" + deckSize +
+                "\ttokenTiles=" + tokenTiles +
+                "\tleftCubes=" + leftCubes +
+                "\trightCubes=" + rightCubes;
+    }
+
+    public static class PlayerRules {
+        // The cards and hand one side starts with, as given by PlayerType for the published rules
+        private int handLimit;
+        private int startingHand;
+        private int moveAll;
+        private int moveOne;
+        private int split;
+        private boolean wildcardReady;
+
+        public PlayerRules(PlayerType type) {
+            this.handLimit = type.getHandLimit();
+            this.startingHand = type.getStartingHand();
+            this.moveAll = type.getMoveAll();
+            this.moveOne = type.getMoveOne();
+            this.split = type.getSplit();
+            this.wildcardReady = type.isWildcardReady();
+        }
+
+        public PlayerRules(PlayerRules rules) {
+            this.handLimit = rules.handLimit;
+            this.startingHand = rules.startingHand;
+            this.moveAll = rules.moveAll;
+            this.moveOne = rules.moveOne;
+            this.split = rules.split;
+            this.wildcardReady = rules.wildcardReady;
+        }
+
+        public int getHandLimit() {
+            return handLimit;
+        }
+
+        public void setHandLimit(int handLimit) {
+            this.handLimit = handLimit;
+        }
+
+        public int getStartingHand() {
+            return startingHand;
+        }
+
+        public void setStartingHand(int startingHand) {
+            this.startingHand = startingHand;
+        }
+
+        public int getMoveAll() {
+            return moveAll;
+        }
+
+        public void setMoveAll(int moveAll) {
+            this.moveAll = moveAll;
+        }
+
+        public int getMoveOne() {
+            return moveOne;
+        }
+
+        public void setMoveOne(int moveOne) {
+            this.moveOne = moveOne;
+        }
+
+        public int getSplit() {
+            return split;
+        }
+
+        public void setSplit(int split) {
+            this.split = split;
+        }
+
+        public boolean isWildcardReady() {
+            return wildcardReady;
+        }
+
+        public void setWildcardReady(boolean wildcardReady) {
+            this.wildcardReady = wildcardReady;
+        }
+
+        public void validate() {
+            if(this.startingHand < 0 || this.startingHand > this.handLimit) {
+                throw new IllegalArgumentException("Starting hand of " + this.startingHand +
+                        " does not fit a hand limit of " + this.handLimit);
+            }
+            if(this.moveAll < 0 || this.moveOne < 0 || this.split < 0 ||
+                    this.moveAll + this.moveOne + this.split < this.startingHand) {
+                throw new IllegalArgumentException("Too few cards to deal a starting hand of " + this.startingHand);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "handLimit=" + handLimit +
+                    ",startingHand=" + startingHand +
+                    ",moveAll=" + moveAll +
+                    ",moveOne=" + moveOne +
+                    ",split=" + split +
+                    ",wildcardReady=" + wildcardReady;
+        }
+    }
+}
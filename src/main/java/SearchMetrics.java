@@ -0,0 +1,131 @@
+import java.util.Arrays;
+
+public class SearchMetrics {
+    /***
+     * What one ISMCTS search spent its time on, and the shape of what it searched.
+     * Each search worker fills in metrics of its own as it iterates, and these are merged into the search's metrics
+     * when it finishes, so workers never contend over them. Phase times come from a clock read between phases, which
+     * costs little next to an iteration.
+     * Depth is how far below the root each iteration left the tree, counting the node it expanded. Branching factor
+     * is the mean number of legal moves in each state met while descending the tree, and playout length the number of
+     * moves made at random after leaving it.
+     */
+    public enum Phase {PRUNE, DETERMINIZE, SELECT, EXPAND, SIMULATE, BACKPROPAGATE};
+    private static final Phase[] PHASES = Phase.values();
+    private static final GameState[] STATES = GameState.values();
+    private final long[] phaseNanos;
+    private final long[] branchingMoves;
+    private final long[] branchingVisits;
+    private long iterations;
+    private long depthTotal;
+    private int maxDepth;
+    private long playoutMoves;
+    private long elapsedNanos;
+    private int treeSize;
+
+    public SearchMetrics() {
+        this.phaseNanos = new long[PHASES.length];
+        this.branchingMoves = new long[STATES.length];
+        this.branchingVisits = new long[STATES.length];
+    }
+
+    public long lap(Phase phase, long since) {
+        // Add the time since a clock reading to a phase, returning the new reading to time the next phase from
+        long now = System.nanoTime();
+        this.phaseNanos[phase.ordinal()] += now - since;
+        return now;
+    }
+
+    public void addBranching(GameState state, int legalMoves) {
+        this.branchingMoves[state.ordinal()] += legalMoves;
+        this.branchingVisits[state.ordinal()]++;
+    }
+
+    public void addIteration(int depth, int playoutLength) {
+        this.iterations++;
+        this.depthTotal += depth;
+        this.maxDepth = Math.max(this.maxDepth, depth);
+        this.playoutMoves += playoutLength;
+    }
+
+    public synchronized void merge(SearchMetrics worker) {
+        for(int i = 0; i < PHASES.length; i++) {
+            this.phaseNanos[i] += worker.phaseNanos[i];
+        }
+        for(int i = 0; i < STATES.length; i++) {
+            this.branchingMoves[i] += worker.branchingMoves[i];
+            this.branchingVisits[i] += worker.branchingVisits[i];
+        }
+        this.iterations += worker.iterations;
+        this.depthTotal += worker.depthTotal;
+        this.maxDepth = Math.max(this.maxDepth, worker.maxDepth);
+        this.playoutMoves += worker.playoutMoves;
+    }
+
+    public void finish(long elapsedNanos, int treeSize) {
+        this.elapsedNanos = elapsedNanos;
+        this.treeSize = treeSize;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getIterationsPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.iterations * 1e9 / this.elapsedNanos;
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        // Summed over workers, so can be more than the time the search took
+        return this.phaseNanos[phase.ordinal()];
+    }
+
+    public double getPhaseShare(Phase phase) {
+        // Share of the time spent in all phases which was spent in this one
+        long total = Arrays.stream(this.phaseNanos).sum();
+        return total == 0 ? 0 : (double) this.phaseNanos[phase.ordinal()] / total;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public double getMeanDepth() {
+        return this.iterations == 0 ? 0 : (double) this.depthTotal / this.iterations;
+    }
+
+    public int getTreeSize() {
+        return treeSize;
+    }
+
+    public double getBranchingFactor(GameState state) {
+        // Mean legal moves in the state while descending the tree, or 0 if the state was not met
+        long visits = this.branchingVisits[state.ordinal()];
+        return visits == 0 ? 0 : (double) this.branchingMoves[state.ordinal()] / visits;
+    }
+
+    public double getMeanPlayoutLength() {
+        return this.iterations == 0 ? 0 : (double) this.playoutMoves / this.iterations;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder(String.format(
+                "SearchMetrics\titerations=%d\titerations/s=%.0f\ttreeSize=%d\tdepth=%.1f (max %d)\tplayout=%.1f",
+                this.iterations, this.getIterationsPerSecond(), this.treeSize, this.getMeanDepth(), this.maxDepth,
+                this.getMeanPlayoutLength()));
+        for(Phase phase : PHASES) {
+            out.append(String.format("\t%s=%.1f%%", phase.name().toLowerCase(), this.getPhaseShare(phase) * 100));
+        }
+        for(GameState state : STATES) {
+            if(this.branchingVisits[state.ordinal()] > 0) {
+                out.append(String.format("\tbranching %s=%.1f", state, this.getBranchingFactor(state)));
+            }
+        }
+        return out.toString();
+    }
+}
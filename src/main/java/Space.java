@@ -5,79 +5,84 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 public class Space {
-    private List<Cube> cubes;
-    private Set<Color> colors;
-
-    private static HashMap<List<Cube>, List<Cube>> sortMap = new HashMap<>();
-    private static HashMap<List<Cube>, Set<Color>> colorMap = new HashMap<>();
+    /***
+     * A space between tiles, holding cubes. Cubes of a color are interchangeable, so a space holds only how many
+     * cubes of each color it has. Two spaces with the same counts are equal however their cubes were added, and the
+     * cubes are listed sorted without sorting anything.
+     */
+    // Cubes are listed in the order Cube compares them, which is by the name of their color
+    static final Color[] SORTED_COLORS = Arrays.stream(Color.values())
+            .sorted(Comparator.comparing(Enum::name))
+            .toArray(Color[]::new);
+    private static final Color[] COLORS = Color.values();
+    // Count of cubes of each color, by ordinal
+    private int[] counts;
 
     public Space() {
-        this.cubes = new ArrayList<>();
-        this.colors = new HashSet<>();
+        this.counts = new int[COLORS.length];
     }
 
     public Space(Space space) {
         // Copy constructor, does not copy adjacent tiles or spaces
         this();
-        // If cloning a space, trust the cubes are in order
-        this.cubes = new ArrayList<>(space.cubes);
-        this.colors = new HashSet<>(space.colors);
+        for(Color color : COLORS) {
+            this.counts[color.ordinal()] = space.getCubeCount(color);
+        }
     }
 
     public Space(List<Cube> cubes) {
-        // Copy the list, do not use reference to list
         this();
-        this.addCubes(cubes.stream().collect(Collectors.toList()));
+        this.addCubes(cubes);
     }
 
     public int getCubeCount() {
-        return this.cubes.size();
+        return Arrays.stream(this.counts).sum();
+    }
+
+    public int getCubeCount(Color color) {
+        return this.counts[color.ordinal()];
     }
 
     public Set<Color> getColors() {
-        return this.colors;
+        Set<Color> colors = EnumSet.noneOf(Color.class);
+        for(Color color : COLORS) {
+            if(this.getCubeCount(color) > 0) {
+                colors.add(color);
+            }
+        }
+        return colors;
     }
 
     public void addCube(Cube cube) {
-        this.addCubes(Arrays.asList(cube));
+        this.addCubes(Collections.singletonList(cube));
     }
 
     public void addCubes(Collection<Cube> cubes) {
         if(!Objects.isNull(cubes)) {
-            this.cubes.addAll(cubes);
-            // Sort list
-            this.sortCubes();
+            cubes.forEach(c -> this.counts[c.getColor().ordinal()]++);
         }
     }
 
     public void removeCube(Cube cube) {
-        this.cubes.remove(cube);
-        this.sortCubes();
-    }
-
-    private void sortCubes() {
-        if(sortMap.containsKey(this.cubes)) {
-            this.colors = new HashSet<>(colorMap.get(cubes));
-            this.cubes = new ArrayList<>(sortMap.get(cubes));
-        } else {
-            List<Cube> sorted = this.cubes.stream().sorted(Cube::compareTo).collect(Collectors.toList());
-            Set<Color> colors = this.getCubes().stream()
-                    .map(Cube::getColor)
-                    .collect(Collectors.toSet());
-            sortMap.put(this.cubes, sorted);
-            colorMap.put(this.cubes, colors);
-            this.cubes = sorted;
-            this.colors = colors;
+        // As for a list, removing a cube which is not present does nothing
+        if(this.counts[cube.getColor().ordinal()] > 0) {
+            this.counts[cube.getColor().ordinal()]--;
         }
     }
 
     public void clearCubes() {
-        this.cubes = new ArrayList<>();
+        Arrays.fill(this.counts, 0);
     }
 
     public List<Cube> getCubes() {
         // Return a sorted list of cubes
-        return this.cubes;
+        List<Cube> cubes = new ArrayList<>();
+        for(Color color : SORTED_COLORS) {
+            for(int i = this.getCubeCount(color); i > 0; i--) {
+                cubes.add(Cube.of(color));
+            }
+        }
+        return cubes;
     }
 
     @Override
@@ -89,13 +94,32 @@ public class Space {
     }
 
     public void setCubes(List<Cube> cubes) {
-        this.cubes = cubes;
+        this.clearCubes();
+        this.addCubes(cubes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        // Spaces with the same cubes are equal, including spaces on a board
+        if (this == o) return true;
+
+        if (!(o instanceof Space)) return false;
+
+        Space space = (Space) o;
+
+        EqualsBuilder equals = new EqualsBuilder();
+        for(Color color : COLORS) {
+            equals.append(this.getCubeCount(color), space.getCubeCount(color));
+        }
+        return equals.isEquals();
     }
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder(17, 37)
-                .append(this.getCubes())
-                .toHashCode();
+        HashCodeBuilder hash = new HashCodeBuilder(17, 37);
+        for(Color color : COLORS) {
+            hash.append(this.getCubeCount(color));
+        }
+        return hash.toHashCode();
     }
 }
@@ -1,79 +1,105 @@
-import org.apache.commons.math3.util.Combinations;
-
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.SplittableRandom;
 
 public class SplitCard extends Card {
+    // Moves split all the cubes on one active space between the two inactive spaces below it. Cubes of a color are
+    // interchangeable, so a split is how many cubes of each color go left, the rest going right. The argument packs
+    // the space index in bits 0-3, and from bit 4, 4 bits per color (by ordinal) holding how many go left.
+    // A lone cube may go either way, but more than one cube must be split with some going each way.
+    public static final SplitCard INSTANCE = new SplitCard();
+    private static final Color[] COLORS = Color.values();
+    private static final int COLOR_BITS = 4;
+    private static final int COLOR_MAX = (1 << COLOR_BITS) - 1;
+
+    private SplitCard() {
+    }
+
     @Override
-    protected Set<Board> getPossibleMoves(Board currentBoard) {
-        // Return all the board states which could be arrived at by splitting
+    protected void listMoves(Board currentBoard, long prefix, MoveList moves) {
+        // Find all the splits which could be made
         // Loop through spaces on the active row
-        return IntStream.range(0, currentBoard.getActiveRowSpaces().size())
-                .mapToObj(i -> this.splitSpace(i, currentBoard))
-                .flatMap(Set::stream)
-                .collect(Collectors.toSet());
+        for(int i = 0; i < currentBoard.getSpaceCount(true); i++) {
+            this.splitSpace(i, currentBoard, prefix, moves);
+        }
     }
 
-    @Override
-    protected Card makeCopy() {
-        return new SplitCard();
+    private void splitSpace(int spaceIdx, Board currentBoard, long prefix, MoveList moves) {
+        // Count through every number of cubes of each color which could go left, as a number whose digits are the
+        // counts, the first color being the lowest digit
+        long splits = SplitCard.countSplits(currentBoard, spaceIdx);
+        int first = currentBoard.getCubeCount(true, spaceIdx) == 1 ? 0 : 1;
+        for(long r = 0; r < splits; r++) {
+            moves.add(prefix | spaceIdx | SplitCard.split(currentBoard, spaceIdx, r + first));
+        }
+    }
+
+    private static long countSplits(Board currentBoard, int spaceIdx) {
+        // Every count of each color going left, less all going left or none if there is more than one cube
+        int n = currentBoard.getCubeCount(true, spaceIdx);
+        if(n < 2) {
+            return n * 2;
+        }
+        long splits = 1;
+        for(Color color : COLORS) {
+            splits *= currentBoard.getCubeCount(true, spaceIdx, color) + 1;
+        }
+        return splits - 2;
+    }
+
+    private static long split(Board currentBoard, int spaceIdx, long index) {
+        // The split numbered index, with its counts packed from bit 4
+        long split = 0;
+        for(Color color : COLORS) {
+            int digits = currentBoard.getCubeCount(true, spaceIdx, color) + 1;
+            split |= (index % digits) << (4 + color.ordinal() * COLOR_BITS);
+            index /= digits;
+        }
+        return split;
     }
 
-    private Set<Board> splitSpace(int spaceIdx, Board currentBoard) {
-        Space space = currentBoard.getActiveRowSpaces().get(spaceIdx);
-        // Determine all the ways to partition the cubes in two
-        // For set of cubes C, n = |C|. Find combinations of k number of cubes which can be selected, from 1 to (k / 2)
-        Set<Integer> nSet = IntStream.range(0, space.getCubeCount()).mapToObj(Integer::new).collect(Collectors.toSet());
-        Set<Board> moves = new HashSet<>();
-        Double limit = new Double(space.getCubeCount()) / 2;
-        if(space.getCubeCount() == 1) {
-            limit = Double.valueOf(1.0);
+    @Override
+    protected long countMoves(Board currentBoard) {
+        long count = 0;
+        for(int i = 0; i < currentBoard.getSpaceCount(true); i++) {
+            count += SplitCard.countSplits(currentBoard, i);
         }
-        for(int k = 1; k <= limit; k++) {
-            for (int[] combo: new Combinations(space.getCubeCount(), k)) {
-                // Determine the cube indices to put into the k-set
-                Set<Integer> kSet = IntStream.of(combo).mapToObj(Integer::new).collect(Collectors.toSet());
-                // Any indices not going into k-set will go to nk-set
-                Set<Integer> nkSet = new HashSet<>(nSet);
-                nkSet.removeAll(kSet);
-                // Convert these to cubes
-                List<Cube> kCube = this.cubesFromIndices(space.getCubes(), kSet);
-                List<Cube> nkCube = this.cubesFromIndices(space.getCubes(), nkSet);
-                // Send k-left and nk-right
-                moves.add(this.makeSplit(spaceIdx, currentBoard, kCube, nkCube));
-                // Send k-right and nk-left
-                moves.add(this.makeSplit(spaceIdx, currentBoard, nkCube, kCube));
+        return count;
+    }
+
+    @Override
+    protected long sampleMove(Board currentBoard, long prefix, SplittableRandom random) {
+        long r = random.nextLong(this.countMoves(currentBoard));
+        for(int i = 0; i < currentBoard.getSpaceCount(true); i++) {
+            long splits = SplitCard.countSplits(currentBoard, i);
+            if(r < splits) {
+                int first = currentBoard.getCubeCount(true, i) == 1 ? 0 : 1;
+                return prefix | i | SplitCard.split(currentBoard, i, r + first);
             }
+            r -= splits;
         }
-        if(moves.size() == 0) {
-            int foo = 1;
+        throw new IllegalStateException("No space can be split");
+    }
+
+    @Override
+    protected void applyMove(Board board, long argument) {
+        // Make a specific split move on the board
+        int spaceIdx = (int) argument & 0xF;
+        // Put each color's cubes in the spaces on inactive row, then remove all cubes from active space.
+        for(Color color : COLORS) {
+            int n = board.getCubeCount(true, spaceIdx, color);
+            int left = (int) (argument >> (4 + color.ordinal() * COLOR_BITS)) & COLOR_MAX;
+            board.addCubes(false, spaceIdx, color, left);
+            board.addCubes(false, spaceIdx + 1, color, n - left);
         }
-        return moves;
+        board.clearSpace(true, spaceIdx);
     }
 
-    private List<Cube> cubesFromIndices(List<Cube> cubes, Set<Integer> indices) {
-        // Take a list of cubes, and return those specified in indices
-        return indices.stream().map(cubes::get).collect(Collectors.toList());
+    @Override
+    protected int getCardId() {
+        return 3;
     }
 
     @Override
     public String toString() {
         return "S";
     }
-
-    private Board makeSplit(int spaceIdx, Board currentBoard, List<Cube> left, List<Cube> right) {
-        // Make a specific split move and return a new board state
-        Board movedBoard = new Board(currentBoard);
-        Space space = movedBoard.getActiveRowSpaces().get(spaceIdx);
-        // Remove all cubes from active space and put copies in the spaces on inactive row.
-        space.clearCubes();
-        Space leftSpace = movedBoard.getInactiveRowSpaces().get(spaceIdx);
-        Space rightSpace = movedBoard.getInactiveRowSpaces().get(spaceIdx+1);
-        leftSpace.addCubes(left);
-        rightSpace.addCubes(right);
-        return movedBoard;
-    }
 }
@@ -6,9 +6,16 @@ import java.util.Objects;
 import java.util.Set;
 
 public class Tile {
-    private boolean token;
-    private boolean tokenPresent;
-    private boolean creaturePresent;
+    /***
+     * A tile, as dealt from the deck or seen on a board. The state of tiles on a board is held by the board, which
+     * hands out read only views of it, so tiles themselves never change. Tiles in a deck are only ever plain or token
+     * tiles with nothing on them, so every deck shares the two made by of.
+     */
+    private static final Tile PLAIN = new Tile(false);
+    private static final Tile TOKEN = new Tile(true);
+    private final boolean token;
+    private final boolean tokenPresent;
+    private final boolean creaturePresent;
 
     public Tile(boolean token) {
         // Initialise a tile to go in the deck - no adjacent tiles / spaces etc
@@ -24,9 +31,9 @@ public class Tile {
         this.creaturePresent = creaturePresent;
     }
 
-    public Tile(Tile tile) {
-        // Copies a tile but not it's neighbours, those must be set separately
-        this(tile.isToken(), tile.isTokenPresent(), tile.isCreaturePresent());
+    public static Tile of(boolean token) {
+        // The shared tile to deal from a deck
+        return token ? TOKEN : PLAIN;
     }
 
     @Override
@@ -42,32 +49,20 @@ public class Tile {
         return token;
     }
 
-    public void setToken(boolean token) {
-        this.token = token;
-    }
-
     public boolean isTokenPresent() {
         return tokenPresent;
     }
 
-    public void setTokenPresent(boolean tokenPresent) {
-        this.tokenPresent = tokenPresent;
-    }
-
     public boolean isCreaturePresent() {
         return creaturePresent;
     }
 
-    public void setCreaturePresent(boolean creaturePresent) {
-        this.creaturePresent = creaturePresent;
-    }
-
     @Override
     public int hashCode() {
         return new HashCodeBuilder(17, 37)
-                .append(token)
-                .append(tokenPresent)
-                .append(creaturePresent)
+                .append(this.isToken())
+                .append(this.isTokenPresent())
+                .append(this.isCreaturePresent())
                 .toHashCode();
     }
 
@@ -75,14 +70,15 @@ public class Tile {
     public boolean equals(Object o) {
         if (this == o) return true;
 
-        if (o == null || getClass() != o.getClass()) return false;
+        // Tiles on a board are views of it, so compare any tile by its state
+        if (!(o instanceof Tile)) return false;
 
         Tile tile = (Tile) o;
 
         return new EqualsBuilder()
-                .append(token, tile.token)
-                .append(tokenPresent, tile.tokenPresent)
-                .append(creaturePresent, tile.creaturePresent)
+                .append(this.isToken(), tile.isToken())
+                .append(this.isTokenPresent(), tile.isTokenPresent())
+                .append(this.isCreaturePresent(), tile.isCreaturePresent())
                 .isEquals();
     }
 }
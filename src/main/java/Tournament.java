@@ -0,0 +1,248 @@
+import org.apache.commons.math3.distribution.NormalDistribution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+public class Tournament {
+    /***
+     * Plays a number of games between two ISMCTS players at once on a fixed pool of threads, and counts the wins.
+     * Each thread takes a pair of engines from the suppliers the first time it plays, and reuses them, reset, for every
+     * game it plays after. Game i is dealt and searched from seeds made from the tournament's seed and i, so any one
+     * game can be played again with playGame(i) to see how it went.
+     */
+    public static final double DEFAULT_CONFIDENCE = 0.95;
+    private final int games;
+    private final int threads;
+    private final long seed;
+    private final ThreadLocal<ISMCTS> scientist;
+    private final ThreadLocal<ISMCTS> creature;
+    private Rules rules;
+    // When set, the tournament stops as soon as this test settles whether the rules are balanced
+    private BalanceSprt stoppingRule;
+
+    public Tournament(int games, int threads, long seed, Supplier<ISMCTS> scientist, Supplier<ISMCTS> creature) {
+        if(games < 1 || threads < 1) {
+            throw new IllegalArgumentException("Game and thread counts must be at least 1");
+        }
+        this.games = games;
+        this.threads = threads;
+        this.seed = seed;
+        this.scientist = ThreadLocal.withInitial(scientist);
+        this.creature = ThreadLocal.withInitial(creature);
+        this.rules = new Rules();
+    }
+
+    public Rules getRules() {
+        return rules;
+    }
+
+    public void setRules(Rules rules) {
+        rules.validate();
+        this.rules = rules;
+    }
+
+    public BalanceSprt getStoppingRule() {
+        return stoppingRule;
+    }
+
+    public void setStoppingRule(BalanceSprt stoppingRule) {
+        this.stoppingRule = stoppingRule;
+    }
+
+    public Result run() {
+        ExecutorService workers = Executors.newFixedThreadPool(this.threads, r -> {
+            Thread thread = new Thread(r, "tournament-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            return this.run(workers);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    public Result run(ExecutorService workers) {
+        return this.submit(workers).await();
+    }
+
+    public Pending submit(ExecutorService workers) {
+        // Queue every game on the workers. Once the stopping rule settles the result, games not yet started are
+        // skipped.
+        Pending pending = new Pending(this.games, this.stoppingRule);
+        for(int i = 0; i < this.games; i++) {
+            final int game = i;
+            pending.futures.add(workers.submit(() -> {
+                if(!pending.isSettled()) {
+                    pending.record(game, this.playGame(game));
+                }
+            }));
+        }
+        return pending;
+    }
+
+    public GameState playGame(int game) {
+        // Play the game numbered game to the end, returning who won
+        ISMCTS scientist = this.scientist.get();
+        ISMCTS creature = this.creature.get();
+        scientist.reset();
+        creature.reset();
+        scientist.setSeed(Zobrist.mix(this.seed + game, PlayerType.SCIENTIST.ordinal()));
+        creature.setSeed(Zobrist.mix(this.seed + game, PlayerType.CREATURE.ordinal()));
+        Game start = new Game(this.rules, new SplittableRandom(Zobrist.mix(this.seed + game)));
+        return Tournament.playGame(start, scientist, creature);
+    }
+
+    public static GameState playGame(Game game, ISMCTS scientist, ISMCTS creature) {
+        while (!(game.getState() == GameState.SCIENTIST_WIN || game.getState() == GameState.CREATURE_WIN)) {
+            PlayerType move = game.getState().playerToMove(game);
+            game = (move == PlayerType.SCIENTIST ? scientist : creature).selectMove(game);
+        }
+        return game.getState();
+    }
+
+    private static void await(Future<?> result) {
+        try {
+            result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for tournament game", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tournament game failed", e.getCause());
+        }
+    }
+
+    public static class Pending {
+        // Games of a tournament queued on workers. Winners are counted in game order, so the result stops at the same
+        // game however the games are spread over threads, and a stopped tournament can be replayed.
+        private final List<Future<?>> futures;
+        private final GameState[] winners;
+        private final BalanceSprt stoppingRule;
+        private int counted;
+        private int scientistWins;
+        private BalanceSprt.Verdict verdict;
+        private volatile boolean settled;
+
+        private Pending(int games, BalanceSprt stoppingRule) {
+            this.futures = new ArrayList<>();
+            this.winners = new GameState[games];
+            this.stoppingRule = stoppingRule;
+            this.verdict = BalanceSprt.Verdict.UNDECIDED;
+        }
+
+        public boolean isSettled() {
+            return this.settled;
+        }
+
+        private synchronized void record(int game, GameState winner) {
+            this.winners[game] = winner;
+            while(!this.settled && this.counted < this.winners.length && this.winners[this.counted] != null) {
+                if(this.winners[this.counted++] == GameState.SCIENTIST_WIN) {
+                    this.scientistWins++;
+                }
+                if(this.stoppingRule != null) {
+                    this.verdict = this.stoppingRule.decide(this.scientistWins, this.counted);
+                    this.settled = this.verdict != BalanceSprt.Verdict.UNDECIDED;
+                }
+            }
+        }
+
+        public Result await() {
+            // Wait for every queued game to be played or skipped
+            this.futures.forEach(Tournament::await);
+            synchronized (this) {
+                return new Result(this.scientistWins, this.counted - this.scientistWins,
+                        this.stoppingRule == null ? null : this.verdict);
+            }
+        }
+    }
+
+    public static class Result {
+        private final int scientistWins;
+        private final int creatureWins;
+        // Whether the games settled that the rules are balanced, or null if no stopping rule was used
+        private final BalanceSprt.Verdict verdict;
+
+        public Result(int scientistWins, int creatureWins, BalanceSprt.Verdict verdict) {
+            this.scientistWins = scientistWins;
+            this.creatureWins = creatureWins;
+            this.verdict = verdict;
+        }
+
+        public Result(int scientistWins, int creatureWins) {
+            this(scientistWins, creatureWins, null);
+        }
+
+        public BalanceSprt.Verdict getVerdict() {
+            return verdict;
+        }
+
+        public int getScientistWins() {
+            return scientistWins;
+        }
+
+        public int getCreatureWins() {
+            return creatureWins;
+        }
+
+        public int getGames() {
+            return this.scientistWins + this.creatureWins;
+        }
+
+        public int getWins(PlayerType player) {
+            return player == PlayerType.SCIENTIST ? this.scientistWins : this.creatureWins;
+        }
+
+        public double winRate(PlayerType player) {
+            return (double) this.getWins(player) / this.getGames();
+        }
+
+        public double[] confidenceInterval(PlayerType player, double confidence) {
+            // Wilson score interval for a player's win rate, which stays inside [0, 1] even for few games or one
+            // sided results
+            double n = this.getGames();
+            double p = this.winRate(player);
+            double z = new NormalDistribution().inverseCumulativeProbability(1 - (1 - confidence) / 2);
+            double denominator = 1 + z * z / n;
+            double centre = (p + z * z / (2 * n)) / denominator;
+            double halfWidth = z * Math.sqrt(p * (1 - p) / n + z * z / (4 * n * n)) / denominator;
+            return new double[] {centre - halfWidth, centre + halfWidth};
+        }
+
+        @Override
+        public String toString() {
+            double[] interval = this.confidenceInterval(PlayerType.SCIENTIST, DEFAULT_CONFIDENCE);
+            return String.format("Scientists: %d, Creature: %d, scientist win rate %.3f (%.0f%% CI %.3f - %.3f)",
+                    this.scientistWins, this.creatureWins, this.winRate(PlayerType.SCIENTIST),
+                    DEFAULT_CONFIDENCE * 100, interval[0], interval[1]) +
+                    (this.verdict == null ? "" : ", " + this.verdict);
+        }
+    }
+
+    public static void main(String[] args) {
+        // Arguments: games, iterations per move, scientist exploration, creature exploration, threads, seed, and a
+        // margin of win rate to stop at once the game is shown balanced or one sided by it
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        double scientistExploration = args.length > 2 ? Double.parseDouble(args[2]) : ISMCTS.DEFAULT_EXPLORATION;
+        double creatureExploration = args.length > 3 ? Double.parseDouble(args[3]) : ISMCTS.DEFAULT_EXPLORATION;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+        Tournament tournament = new Tournament(games, threads, seed,
+                () -> new ISMCTS(iterations, false, scientistExploration),
+                () -> new ISMCTS(iterations, false, creatureExploration));
+        if(args.length > 6) {
+            tournament.setStoppingRule(new BalanceSprt(Double.parseDouble(args[6])));
+        }
+        long start = System.nanoTime();
+        Result result = tournament.run();
+        System.out.println(result);
+        System.out.printf("%d games in %.1fs, seed %d%n", result.getGames(), (System.nanoTime() - start) / 1e9, seed);
+    }
+}
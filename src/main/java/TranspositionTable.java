@@ -0,0 +1,86 @@
+import java.util.Arrays;
+
+public class TranspositionTable {
+    /***
+     * Finds the tree node already made for an information set, so that the ways of reaching it share one node.
+     * Holds a bounded number of nodes in buckets of two, keyed by information set key. When both places in a bucket
+     * are taken, the less visited node is replaced. A replaced node stays in the tree, it just can no longer be
+     * reached by transposition.
+     */
+    private static final int WAYS = 2;
+    private final long[] keys;
+    private final TreeNode[] nodes;
+    private final int bucketMask;
+    private int size;
+    private int hits;
+    private int replaced;
+
+    public TranspositionTable(int capacity) {
+        if(capacity < WAYS) {
+            throw new IllegalArgumentException("Transposition table must hold at least " + WAYS + " nodes");
+        }
+        // Round the number of buckets down to a power of two, so a key's bucket is found with a mask
+        int buckets = Integer.highestOneBit(capacity / WAYS);
+        this.keys = new long[buckets * WAYS];
+        this.nodes = new TreeNode[buckets * WAYS];
+        this.bucketMask = buckets - 1;
+    }
+
+    private int bucket(long key) {
+        // The low bits of a key are as random as any, so use them to pick the bucket
+        return ((int) key & this.bucketMask) * WAYS;
+    }
+
+    public TreeNode get(long key) {
+        int first = this.bucket(key);
+        for(int i = first; i < first + WAYS; i++) {
+            if(this.nodes[i] != null && this.keys[i] == key) {
+                this.hits++;
+                return this.nodes[i];
+            }
+        }
+        return null;
+    }
+
+    public void put(long key, TreeNode node) {
+        int first = this.bucket(key);
+        int victim = first;
+        for(int i = first; i < first + WAYS; i++) {
+            if(this.nodes[i] == null || this.keys[i] == key) {
+                victim = i;
+                break;
+            }
+            if(this.nodes[i].getVisits() < this.nodes[victim].getVisits()) {
+                victim = i;
+            }
+        }
+        if(this.nodes[victim] == null) {
+            this.size++;
+        } else if(this.keys[victim] != key) {
+            this.replaced++;
+        }
+        this.keys[victim] = key;
+        this.nodes[victim] = node;
+    }
+
+    public void clear() {
+        Arrays.fill(this.nodes, null);
+        this.size = 0;
+    }
+
+    public int capacity() {
+        return this.nodes.length;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int getHits() {
+        return this.hits;
+    }
+
+    public int getReplaced() {
+        return this.replaced;
+    }
+}
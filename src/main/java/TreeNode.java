@@ -1,16 +1,14 @@
-import sun.reflect.generics.tree.Tree;
-
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class TreeNode {
     /***
      * Node in ISMCTS game tree.
      */
     /***
-     * TODO: Maybe consider a transposition handling scheme?
+     * A node reached by transposition shares the children and results of the node first made for its information
+     * set. Each keeps its own move, parent and availability count, as those belong to the way the node was reached.
      */
-    private String move;
+    private long move;
     private TreeNode parent;
     private List<TreeNode> children;
     private int wins;
@@ -18,8 +16,9 @@ public class TreeNode {
     private int avails;
     private double exploration;
     private PlayerType justMoved;
+    private TreeNode shared;
 
-    public TreeNode(String move, TreeNode parent, PlayerType justMoved, double exploration) {
+    public TreeNode(long move, TreeNode parent, PlayerType justMoved, double exploration) {
         this.move = move;
         this.parent = parent;
         this.children = new ArrayList<>();
@@ -47,19 +46,32 @@ public class TreeNode {
     }
 
     public int getWins() {
-        return wins;
+        return Objects.isNull(this.shared) ? wins : this.shared.getWins();
     }
 
     public void setWins(int wins) {
-        this.wins = wins;
+        if(Objects.isNull(this.shared)) {
+            this.wins = wins;
+        } else {
+            this.shared.setWins(wins);
+        }
     }
 
     public int getVisits() {
-        return visits;
+        return Objects.isNull(this.shared) ? visits : this.shared.getVisits();
     }
 
     public void setVisits(int visits) {
-        this.visits = visits;
+        if(Objects.isNull(this.shared)) {
+            this.visits = visits;
+        } else {
+            this.shared.setVisits(visits);
+        }
+    }
+
+    public TreeNode getShared() {
+        // The node holding this node's children and results
+        return Objects.isNull(this.shared) ? this : this.shared;
     }
 
     public int getAvails() {
@@ -78,61 +90,91 @@ public class TreeNode {
         this.exploration = exploration;
     }
 
-    public String getMove() {
+    public long getMove() {
         return move;
     }
 
-    public void setMove(String move) {
+    public void setMove(long move) {
         this.move = move;
     }
 
-    public Set<String> triedMoves() {
-        return this.children.stream().map(TreeNode::getMove).collect(Collectors.toSet());
+    public long[] triedMoves() {
+        return this.children.stream().mapToLong(TreeNode::getMove).toArray();
     }
 
-    public Set<String> getUntriedMoves(Set<String> legalMoves) {
-        // Get a list of moves which have not been tried which are among the legal moves
-        Set<String> tried = this.triedMoves();
-        Set<String> untried = new HashSet<>(legalMoves);
-        untried.removeAll(tried);
+    public long[] getUntriedMoves(long[] legalMoves) {
+        // Get the legal moves which have not been tried. legalMoves must be sorted.
+        boolean[] tried = new boolean[legalMoves.length];
+        int triedCount = 0;
+        for(TreeNode child : this.children) {
+            int idx = Arrays.binarySearch(legalMoves, child.getMove());
+            if(idx >= 0 && !tried[idx]) {
+                tried[idx] = true;
+                triedCount++;
+            }
+        }
+        long[] untried = new long[legalMoves.length - triedCount];
+        int next = 0;
+        for(int i = 0; i < legalMoves.length; i++) {
+            if(!tried[i]) {
+                untried[next++] = legalMoves[i];
+            }
+        }
         return untried;
     }
 
-    public TreeNode selectChild(Set<String> legalMoves) {
-        // Select a child node for which the move is legal, based on UCB1 formula
-        List<TreeNode> legalChildren = this.children.stream().filter(c -> legalMoves.contains(c.getMove()))
-                .collect(Collectors.toList());
-        // Get child with highest UCB score
-        TreeNode selected =  legalChildren.stream().reduce(null, (TreeNode a, TreeNode b) -> {
-            if(Objects.isNull(a)) {
-                return b;
+    public TreeNode selectChild(long[] legalMoves) {
+        // Select a child node for which the move is legal, based on UCB1 formula. legalMoves must be sorted.
+        // One pass over the children, scoring each legal child once and updating its availability count as it goes.
+        // The first of equally scored children is kept.
+        TreeNode selected = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for(int i = 0; i < this.children.size(); i++) {
+            TreeNode child = this.children.get(i);
+            if(Arrays.binarySearch(legalMoves, child.getMove()) < 0) {
+                continue;
             }
-            if(b.ucbScore() > a.ucbScore()) {
-                return b;
-            } else {
-                return a;
+            double score = child.ucbScore();
+            if(selected == null || score > bestScore) {
+                selected = child;
+                bestScore = score;
             }
-        });
-        // Updated availability counts
-        for(TreeNode child : legalChildren) {
+            // Updated availability counts
             child.setAvails(child.getAvails() + 1);
         }
         return selected;
     }
 
-    public Double ucbScore() {
-        return Double.valueOf(this.getWins()) / Double.valueOf(this.getVisits()) + (this.getExploration() *
-                Math.sqrt(Math.log(Double.valueOf(this.getAvails())) / Double.valueOf(this.getVisits())));
+    public double ucbScore() {
+        double visits = this.getVisits();
+        return this.getWins() / visits + this.getExploration() * Math.sqrt(Math.log(this.getAvails()) / visits);
+    }
+
+    public TreeNode addChild(long move, PlayerType justMoved) {
+        TreeNode child = this.makeChild(move, justMoved);
+        this.getChildren().add(child);
+        return child;
+    }
+
+    protected TreeNode makeChild(long move, PlayerType justMoved) {
+        return new TreeNode(move, this, justMoved, this.exploration);
     }
 
-    public TreeNode addChild(String move, PlayerType justMoved) {
-        TreeNode child = new TreeNode(move, this, justMoved, this.exploration);
+    public TreeNode addTransposition(long move, TreeNode existing) {
+        // Add a child for a move which reaches the same information set as an existing node
+        TreeNode child = new TreeNode(move, this, existing.getJustMoved(), this.exploration);
+        child.shared = existing.getShared();
+        child.children = child.shared.children;
         this.getChildren().add(child);
         return child;
     }
 
     public void update(GameState terminalState) {
         // Update node - increment visit count, increase win count if terminal state matches win state
+        if(!Objects.isNull(this.shared)) {
+            this.shared.update(terminalState);
+            return;
+        }
         this.visits = this.visits + 1;
         if(this.getJustMoved() == PlayerType.SCIENTIST) {
             this.wins = this.wins + (terminalState == GameState.SCIENTIST_WIN ? 1 : 0);
@@ -0,0 +1,76 @@
+import java.util.SplittableRandom;
+
+public final class Zobrist {
+    // Random 64 bit keys for each part of a game's state. A state's key is the combination of the keys of its parts,
+    // so a change to one part changes the key by removing the old part's key and adding the new one.
+    // Keys come from a fixed seed so they are the same in every run.
+    private static final long SEED = 0x5DEECE66DL;
+    // Board keys, by row (0 bottom, 1 top), then space or tile index from the left
+    public static final int MAX_ROW_SPACES = 8;
+    private static final long[][][][] SPACE_COUNTS = new long[2][MAX_ROW_SPACES][Color.values().length][16];
+    private static final long[][][] TILE_FLAGS = new long[2][MAX_ROW_SPACES][3];
+    private static final long[][] ROW_WIDTHS = new long[2][MAX_ROW_SPACES + 1];
+    private static final long TOP_ROW_ACTIVE;
+    // Salts to tell apart keys of the same kind of thing used in different places
+    public static final long DRAW_PILE = 0x9E3779B97F4A7C15L;
+    public static final long DISCARD_PILE = 0xC2B2AE3D27D4EB4FL;
+    public static final long HAND = 0x165667B19E3779F9L;
+    public static final long SCIENTIST = 0x27D4EB2F165667C5L;
+    public static final long CREATURE = 0x85EBCA77C2B2AE63L;
+    public static final long ACTIVE_PLAYER = 0xFF51AFD7ED558CCDL;
+    public static final long TILES = 0xC4CEB9FE1A85EC53L;
+    public static final long FIRST_PLAYER = 0x2545F4914F6CDD1DL;
+    public static final long DROPPED_CUBES = 0x9FB21C651E98DF25L;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for(int row = 0; row < 2; row++) {
+            for(int space = 0; space < MAX_ROW_SPACES; space++) {
+                for(int color = 0; color < Color.values().length; color++) {
+                    // An empty space adds nothing, so the key of a board does not depend on its empty spaces
+                    for(int count = 1; count < 16; count++) {
+                        SPACE_COUNTS[row][space][color][count] = random.nextLong();
+                    }
+                }
+                for(int flag = 0; flag < 3; flag++) {
+                    TILE_FLAGS[row][space][flag] = random.nextLong();
+                }
+            }
+            for(int width = 0; width <= MAX_ROW_SPACES; width++) {
+                ROW_WIDTHS[row][width] = random.nextLong();
+            }
+        }
+        TOP_ROW_ACTIVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long spaceCount(boolean top, int space, int color, int count) {
+        return SPACE_COUNTS[top ? 1 : 0][space][color][count];
+    }
+
+    public static long tileFlag(boolean top, int tile, int flag) {
+        return TILE_FLAGS[top ? 1 : 0][tile][flag];
+    }
+
+    public static long rowWidth(boolean top, int width) {
+        return ROW_WIDTHS[top ? 1 : 0][width];
+    }
+
+    public static long topRowActive() {
+        return TOP_ROW_ACTIVE;
+    }
+
+    public static long mix(long value) {
+        // Spread a value, such as a hash code or another key, over 64 bits (the SplitMix64 finaliser)
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static long mix(long value, long salt) {
+        return Zobrist.mix(value ^ salt);
+    }
+}
@@ -0,0 +1,64 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ArenaTreeTest {
+    private ArenaTree tree;
+
+    @Before
+    public void setUp() throws Exception {
+        this.tree = new ArenaTree(ISMCTS.DEFAULT_EXPLORATION, 2);
+    }
+
+    @Test
+    public void expandAndSelect() {
+        long[] legal = new long[] {1L, 2L, 3L};
+        assertEquals(3, this.tree.countUntriedMoves(ArenaTree.ROOT, legal));
+        int first = this.tree.addChild(ArenaTree.ROOT, 1L, PlayerType.CREATURE);
+        int second = this.tree.addChild(ArenaTree.ROOT, 3L, PlayerType.CREATURE);
+        // Adding past the initial capacity grows the arrays
+        assertEquals(3, this.tree.size());
+        assertEquals(1, this.tree.countUntriedMoves(ArenaTree.ROOT, legal));
+        assertEquals(2L, this.tree.getUntriedMove(legal, 0));
+        this.tree.backpropagate(first, GameState.CREATURE_WIN);
+        this.tree.backpropagate(second, GameState.SCIENTIST_WIN);
+        assertEquals(2, this.tree.getVisits(ArenaTree.ROOT));
+        assertEquals(1, this.tree.getWins(first));
+        assertEquals(0, this.tree.getWins(second));
+        // Only legal children are selected, and all legal children become more available
+        assertEquals(second, this.tree.selectChild(ArenaTree.ROOT, new long[] {3L}));
+        assertEquals(first, this.tree.selectChild(ArenaTree.ROOT, legal));
+        assertEquals(3, this.tree.getAvails(second));
+        assertEquals(2, this.tree.getAvails(first));
+    }
+
+    @Test
+    public void tiesGoToOldestChild() {
+        // As with TreeNode, the child added first wins a tie in selection
+        int first = this.tree.addChild(ArenaTree.ROOT, 1L, PlayerType.CREATURE);
+        int second = this.tree.addChild(ArenaTree.ROOT, 2L, PlayerType.CREATURE);
+        assertEquals(first, this.tree.getFirstChild(ArenaTree.ROOT));
+        assertEquals(second, this.tree.getNextSibling(first));
+        this.tree.backpropagate(first, GameState.CREATURE_WIN);
+        this.tree.backpropagate(second, GameState.CREATURE_WIN);
+        assertEquals(first, this.tree.selectChild(ArenaTree.ROOT, new long[] {1L, 2L}));
+
+        TreeNode root = new TreeNode(Move.NONE, null, null, ISMCTS.DEFAULT_EXPLORATION);
+        TreeNode oldest = root.addChild(1L, PlayerType.CREATURE);
+        TreeNode newest = root.addChild(2L, PlayerType.CREATURE);
+        oldest.update(GameState.CREATURE_WIN);
+        newest.update(GameState.CREATURE_WIN);
+        assertEquals(1L, this.tree.getMove(first));
+        assertEquals(this.tree.getMove(first), root.selectChild(new long[] {1L, 2L}).getMove());
+    }
+
+    @Test
+    public void clear() {
+        this.tree.addChild(ArenaTree.ROOT, 1L, PlayerType.SCIENTIST);
+        this.tree.clear();
+        assertEquals(1, this.tree.size());
+        assertEquals(-1, this.tree.getFirstChild(ArenaTree.ROOT));
+        assertEquals(0, this.tree.getVisits(ArenaTree.ROOT));
+    }
+}
@@ -0,0 +1,30 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BalanceSprtTest {
+    private final BalanceSprt sprt = new BalanceSprt(0.1);
+
+    @Test
+    public void lopsidedResultsSettleQuickly() {
+        assertEquals(BalanceSprt.Verdict.UNDECIDED, this.sprt.decide(7, 10));
+        assertEquals(BalanceSprt.Verdict.SCIENTIST_FAVOURED, this.sprt.decide(70, 100));
+        assertEquals(BalanceSprt.Verdict.CREATURE_FAVOURED, this.sprt.decide(30, 100));
+    }
+
+    @Test
+    public void evenResultsSettleBalanced() {
+        assertEquals(BalanceSprt.Verdict.UNDECIDED, this.sprt.decide(25, 50));
+        assertEquals(BalanceSprt.Verdict.BALANCED, this.sprt.decide(250, 500));
+    }
+
+    @Test
+    public void tournamentStopsWhenSettled() {
+        // With a wide margin and loose error rates, the first few games settle the result
+        Tournament tournament = new Tournament(50, 1, 5L, () -> new ISMCTS(5, false), () -> new ISMCTS(5, false));
+        tournament.setStoppingRule(new BalanceSprt(0.45, 0.3, 0.3));
+        Tournament.Result result = tournament.run();
+        assertNotEquals(BalanceSprt.Verdict.UNDECIDED, result.getVerdict());
+        assertTrue(result.getGames() < 50);
+    }
+}
@@ -21,8 +21,8 @@ public class BoardTest {
             return new Tile(false);
         }).collect(Collectors.toList());
         deck = new Deck(tiles);
-        board = new Board(deck, Arrays.asList(new Cube(Color.BLUE), new Cube(Color.ORANGE)),
-                Arrays.asList(new Cube(Color.ORANGE)));
+        board = new Board(deck, Arrays.asList(Cube.of(Color.BLUE), Cube.of(Color.ORANGE)),
+                Arrays.asList(Cube.of(Color.ORANGE)));
     }
 
     @After
@@ -48,9 +48,26 @@ public class BoardTest {
         assertNotEquals(this.board.hashCode(), clone.hashCode());
         clone = new Board(this.board);
         // Move a cube
-        Cube green = new Cube(Color.GREEN);
+        Cube green = Cube.of(Color.GREEN);
         clone.getActiveRowSpaces().get(0).addCube(green);
         System.out.println(clone);
         assertNotEquals(this.board.hashCode(), clone.hashCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDropEdge() {
+        // Cubes start on the bottom row, which is active. Adding tiles to it makes it the wider, inactive row and
+        // shifts its spaces right.
+        this.board.addCubes(true, 1, Color.GREEN, 2);
+        this.board.addTiles(deck.draw(), deck.draw());
+        assertEquals(2, this.board.getCubeCount(false, 2, Color.GREEN));
+        assertEquals(3, this.board.getRowSize(false));
+        assertEquals(new ArrayList<Cube>(), this.board.dropEdge(Board.Side.LEFT));
+        assertEquals(2, this.board.getCubeCount(false, 1, Color.GREEN));
+        List<Cube> dropped = this.board.dropEdge(Board.Side.LEFT);
+        assertEquals(Arrays.asList(Cube.of(Color.BLUE), Cube.of(Color.ORANGE)), dropped);
+        assertEquals(0, this.board.getRowSize(true));
+        assertEquals(1, this.board.getRowSize(false));
+        assertEquals(3, this.board.getCubeCount(false, 0));
+    }
+}
@@ -0,0 +1,41 @@
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentTreeNodeTest {
+    @Test
+    public void treeParallelSearch() {
+        // Many threads growing one tree leave it as one thread would: no virtual losses left over, no move expanded
+        // twice, and a visit to the root for every iteration
+        ISMCTS ismcts = new ISMCTS(2000, false, ISMCTS.DEFAULT_EXPLORATION, 4, ISMCTS.Parallelism.TREE);
+        try {
+            ismcts.setSeed(3L);
+            ismcts.selectMove(new Game(5L));
+            TreeNode root = ismcts.getReusableRoots().get(0);
+            assertEquals(ismcts.getLastMetrics().getIterations(), root.getVisits());
+            assertTrue(root.getVisits() >= 2000);
+
+            Deque<TreeNode> stack = new ArrayDeque<>();
+            stack.push(root);
+            int nodes = 0;
+            while(!stack.isEmpty()) {
+                ConcurrentTreeNode node = (ConcurrentTreeNode) stack.pop();
+                nodes++;
+                assertEquals(0, node.getVirtualLoss());
+                Set<Long> moves = new HashSet<>();
+                for(TreeNode child : node.getChildren()) {
+                    assertTrue(moves.add(child.getMove()));
+                    stack.push(child);
+                }
+            }
+            assertTrue(nodes > 1);
+        } finally {
+            ismcts.shutdown();
+        }
+    }
+}
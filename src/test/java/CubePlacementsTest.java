@@ -0,0 +1,96 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class CubePlacementsTest {
+    // Two blue cubes and one orange, by color ordinal
+    private static final int[] CUBES = cubes(Color.BLUE, Color.BLUE, Color.ORANGE);
+
+    private static int[] cubes(Color... colors) {
+        int[] counts = new int[Color.values().length];
+        for(Color color : colors) {
+            counts[color.ordinal()]++;
+        }
+        return counts;
+    }
+
+    private static List<Long> placements(int[] cubes, int spaces) {
+        List<Long> placements = new ArrayList<>();
+        CubePlacements.forEach(cubes, spaces, placements::add);
+        return placements;
+    }
+
+    @Test
+    public void count() {
+        // Two blue cubes can split 6 ways over 3 spaces, the orange one 3 ways
+        assertEquals(18, CubePlacements.count(CUBES, 3));
+        assertEquals(1, CubePlacements.count(CUBES, 1));
+        assertEquals(1, CubePlacements.count(new int[Color.values().length], 4));
+    }
+
+    @Test
+    public void forEachIsDistinct() {
+        List<Long> placements = placements(CUBES, 3);
+        assertEquals(CubePlacements.count(CUBES, 3), placements.size());
+        assertEquals(placements.size(), new HashSet<>(placements).size());
+    }
+
+    @Test
+    public void forEachMatchesEveryAssignment() {
+        // Placing each cube on a space in turn reaches exactly the same spaces as the distinct placements
+        int spaces = 3;
+        Color[] dropped = {Color.BLUE, Color.BLUE, Color.ORANGE};
+        Set<List<Integer>> assigned = new HashSet<>();
+        for(int a = 0; a < Math.pow(spaces, dropped.length); a++) {
+            Integer[] counts = new Integer[spaces * Color.values().length];
+            Arrays.fill(counts, 0);
+            for(int j = 0, rest = a; j < dropped.length; j++, rest /= spaces) {
+                counts[rest % spaces * Color.values().length + dropped[j].ordinal()]++;
+            }
+            assigned.add(Arrays.asList(counts));
+        }
+        Set<List<Integer>> placed = new HashSet<>();
+        for(long placement : placements(CUBES, spaces)) {
+            Integer[] counts = new Integer[spaces * Color.values().length];
+            for(int s = 0; s < spaces; s++) {
+                for(Color color : Color.values()) {
+                    counts[s * Color.values().length + color.ordinal()] =
+                            CubePlacements.placed(placement, CUBES, spaces, s, color);
+                }
+            }
+            placed.add(Arrays.asList(counts));
+        }
+        assertEquals(assigned, placed);
+    }
+
+    @Test
+    public void sampleIsUniform() {
+        Set<Long> placements = new HashSet<>(placements(CUBES, 3));
+        Map<Long, Integer> drawn = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(4L);
+        int draws = 18000;
+        for(int i = 0; i < draws; i++) {
+            long placement = CubePlacements.sample(CUBES, 3, random);
+            assertTrue(placements.contains(placement));
+            drawn.merge(placement, 1, Integer::sum);
+        }
+        assertEquals(placements.size(), drawn.size());
+        for(int n : drawn.values()) {
+            assertEquals(1000, n, 150);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManySpaces() {
+        CubePlacements.count(CUBES, CubePlacements.MAX_SPACES + 1);
+    }
+}
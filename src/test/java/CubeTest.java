@@ -6,21 +6,21 @@ public class CubeTest {
 
     @Test
     public void getColor() {
-        Cube cube = new Cube(Color.BLUE);
+        Cube cube = Cube.of(Color.BLUE);
         assertEquals(cube.getColor(), Color.BLUE);
     }
 
     @Test
     public void testToString() {
-        Cube cube = new Cube(Color.BLUE);
+        Cube cube = Cube.of(Color.BLUE);
         assertEquals(cube.toString(), ("C[BLUE]"));
     }
 
     @Test
     public void testEquals() {
-        Cube blueOne = new Cube(Color.BLUE);
-        Cube blueTwo = new Cube(Color.BLUE);
-        Cube orange = new Cube(Color.ORANGE);
+        Cube blueOne = Cube.of(Color.BLUE);
+        Cube blueTwo = Cube.of(Color.BLUE);
+        Cube orange = Cube.of(Color.ORANGE);
         assertEquals(blueOne, blueTwo);
         assertNotEquals(blueOne, orange);
         assertNotEquals(blueTwo, orange);
@@ -28,9 +28,9 @@ public class CubeTest {
 
     @Test
     public void testHashCode() {
-        Cube blueOne = new Cube(Color.BLUE);
-        Cube blueTwo = new Cube(Color.BLUE);
-        Cube green = new Cube(Color.GREEN);
+        Cube blueOne = Cube.of(Color.BLUE);
+        Cube blueTwo = Cube.of(Color.BLUE);
+        Cube green = Cube.of(Color.GREEN);
         assertEquals(blueOne.hashCode(), blueTwo.hashCode());
         assertNotEquals(blueOne.hashCode(), green.hashCode());
         assertNotEquals(blueTwo.hashCode(), green.hashCode());
@@ -1,6 +1,15 @@
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
 import static org.junit.Assert.*;
 
 public class GameTest {
@@ -31,4 +40,178 @@ public class GameTest {
         Game randomGame = game.cloneAndRandomise(PlayerType.CREATURE);
         System.out.println(randomGame.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void makeMoveMatchesApplyMove() {
+        Random rand = new Random(7);
+        Game inPlace = new Game(this.game);
+        while(inPlace.getLegalMoves().length > 0) {
+            long[] moves = inPlace.getLegalMoves();
+            long move = moves[rand.nextInt(moves.length)];
+            Game applied = inPlace.applyMove(move);
+            inPlace.makeMove(move);
+            // Drawing may reshuffle a deck, so only compare the parts of the game which are not random
+            assertEquals(applied.getBoard().toString(), inPlace.getBoard().toString());
+            assertEquals(applied.getActivePlayerType(), inPlace.getActivePlayerType());
+            assertEquals(applied.getState(), inPlace.getState());
+        }
+    }
+
+    @Test
+    public void drawTilesOfOneKind() {
+        // Two of the same tile can only be placed one way, so have one move, as they have one successor
+        this.game.getTiles().setItems(Arrays.asList(Tile.of(false), Tile.of(false), Tile.of(true)));
+        assertEquals(1, this.game.listDrawTiles().length);
+        assertEquals(1, this.game.getDrawTiles().size());
+        this.game.getTiles().setItems(Arrays.asList(Tile.of(false), Tile.of(true)));
+        assertEquals(2, this.game.listDrawTiles().length);
+        assertEquals(2, this.game.getDrawTiles().size());
+    }
+
+    @Test
+    public void sampleMoveIsLegal() {
+        // Play games out with sampled moves, checking each is one the state lists
+        SplittableRandom random = new SplittableRandom(19);
+        for(int g = 0; g < 50; g++) {
+            Game game = new Game(random.nextLong());
+            while(game.getLegalMoves().length > 0) {
+                long move = game.sampleMove(random);
+                assertTrue(Move.describe(move), Arrays.binarySearch(game.getLegalMoves(), move) >= 0);
+                game.makeMove(move);
+            }
+        }
+    }
+
+    @Test
+    public void unmakeMove() {
+        // Play a game to the end with undoable moves, then undo back to the start
+        Random rand = new Random(11);
+        String start = this.game.toString();
+        long startKey = this.game.getKey();
+        Deque<Game.Undo> undos = new ArrayDeque<>();
+        List<Long> played = new ArrayList<>();
+        while(this.game.getLegalMoves().length > 0) {
+            long[] moves = this.game.getLegalMoves();
+            long move = moves[rand.nextInt(moves.length)];
+            played.add(move);
+            undos.push(this.game.makeUndoableMove(move));
+        }
+        Game end = new Game(this.game);
+        while(!undos.isEmpty()) {
+            this.game.unmakeMove(undos.pop());
+        }
+        assertEquals(start, this.game.toString());
+        assertEquals(startKey, this.game.getKey());
+        assertEquals(GameState.MOVE_CUBES, this.game.getState());
+
+        // The same moves made again, reshuffles included, reach the same game
+        for(long move : played) {
+            assertTrue(Move.describe(move), Arrays.binarySearch(this.game.getLegalMoves(), move) >= 0);
+            this.game.makeMove(move);
+        }
+        assertSameGame(end, this.game);
+    }
+
+    private static void assertSameGame(Game expected, Game actual) {
+        // Everything about two games, including the order of their decks and their random state
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.getKey(), actual.getKey());
+        assertEquals(expected.getState(), actual.getState());
+        assertEquals(expected.getRandomState(), actual.getRandomState());
+        assertEquals(expected.getTiles().getItems(), actual.getTiles().getItems());
+        Player[] expectedPlayers = {expected.getScientist(), expected.getCreature()};
+        Player[] actualPlayers = {actual.getScientist(), actual.getCreature()};
+        for(int p = 0; p < expectedPlayers.length; p++) {
+            assertEquals(expectedPlayers[p].getHand().getItems(), actualPlayers[p].getHand().getItems());
+            assertEquals(expectedPlayers[p].getDeck().getItems(), actualPlayers[p].getDeck().getItems());
+            assertEquals(expectedPlayers[p].getDeck().getDiscard(), actualPlayers[p].getDeck().getDiscard());
+        }
+    }
+
+    @Test
+    public void keysFollowMoves() {
+        // Keys kept up to date move by move should match keys built from scratch
+        Random rand = new Random(13);
+        long startKey = this.game.getKey();
+        while(this.game.getLegalMoves().length > 0) {
+            long[] moves = this.game.getLegalMoves();
+            this.game.makeMove(moves[rand.nextInt(moves.length)]);
+            Board board = this.game.getBoard();
+            Board rebuilt = new Board(board);
+            rebuilt.setTopRowTiles(rebuilt.getTopRowTiles());
+            rebuilt.setBottomRowTiles(rebuilt.getBottomRowTiles());
+            rebuilt.setTopRowSpaces(board.getTopRowSpaces().stream().map(Space::new).collect(Collectors.toList()));
+            rebuilt.setBottomRowSpaces(board.getBottomRowSpaces().stream()
+                    .map(Space::new)
+                    .collect(Collectors.toList()));
+            assertEquals(board.getKey(), rebuilt.getKey());
+            for(Player player : new Player[] {this.game.getScientist(), this.game.getCreature()}) {
+                Deck<Card> deck = new Deck<>(player.getDeck().getItems());
+                deck.discard(player.getDeck().getDiscard());
+                assertEquals(player.getDeck().getKey(), deck.getKey());
+                assertEquals(player.getHand().getKey(), new Deck<>(player.getHand().getItems()).getKey());
+            }
+        }
+        assertNotEquals(startKey, this.game.getKey());
+        assertEquals(this.game.getKey(), new Game(this.game).getKey());
+        assertEquals(this.game, new Game(this.game));
+    }
+
+    @Test
+    public void historyRecordsAppliedMoves() {
+        Random rand = new Random(17);
+        Game start = this.game.applyMove(this.game.getLegalMoves()[0]);
+        Game later = start;
+        long[] made = new long[3];
+        for(int i = 0; i < made.length; i++) {
+            long[] moves = later.getLegalMoves();
+            made[i] = moves[rand.nextInt(moves.length)];
+            later = later.applyMove(made[i]);
+        }
+        assertArrayEquals(made, Game.History.movesSince(start.getHistory(), later.getHistory()));
+        assertEquals(0, Game.History.movesSince(later.getHistory(), later.getHistory()).length);
+        assertNull(Game.History.movesSince(later.getHistory(), start.getHistory()));
+        // Moves made in place are not recorded
+        later.makeMove(later.getLegalMoves()[0]);
+        assertEquals(4, later.getHistory().getLength());
+    }
+
+    @Test
+    public void seededGamesReplay() {
+        // Games with the same seed deal and reshuffle the same way, so the same choices give the same game
+        Game first = new Game(5);
+        Game second = new Game(5);
+        Random rand = new Random(19);
+        while(first.getLegalMoves().length > 0) {
+            assertEquals(first.toString(), second.toString());
+            long[] moves = first.getLegalMoves();
+            assertArrayEquals(moves, second.getLegalMoves());
+            int choice = rand.nextInt(moves.length);
+            first = first.applyMove(moves[choice]);
+            second.makeMove(moves[choice]);
+            // Determinizations are drawn from the generator they are given
+            assertEquals(first.cloneAndRandomise(PlayerType.SCIENTIST, new SplittableRandom(choice)).toString(),
+                    second.cloneAndRandomise(PlayerType.SCIENTIST, new SplittableRandom(choice)).toString());
+        }
+        assertEquals(first.toString(), second.toString());
+    }
+
+    @Test
+    public void gameFollowsRules() {
+        Rules rules = new Rules();
+        rules.setDeckSize(14);
+        rules.getCreature().setHandLimit(5);
+        rules.setCubeCount(Board.Side.RIGHT, Color.ORANGE, 3);
+        Game game = new Game(rules, new SplittableRandom(23));
+        assertEquals(new Game(new SplittableRandom(23)).getTiles().size() - 3, game.getTiles().size());
+        assertEquals(5, game.getCreature().getHandLimit());
+        // Determinizations keep the token tiles below those dealt to the board
+        Random rand = new Random(29);
+        while(game.getLegalMoves().length > 0) {
+            long[] moves = game.getLegalMoves();
+            game = game.applyMove(moves[rand.nextInt(moves.length)]);
+            Game determinized = game.cloneAndRandomise(PlayerType.SCIENTIST);
+            assertEquals(game.getTiles().getItemsKey(), determinized.getTiles().getItemsKey());
+        }
+    }
+}
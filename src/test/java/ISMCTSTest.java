@@ -0,0 +1,36 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ISMCTSTest {
+    @Test
+    public void timeBudget() {
+        // A time budget ends a search long before a huge iteration count would, and the iterations run are counted
+        // against the state searched
+        ISMCTS ismcts = new ISMCTS(Integer.MAX_VALUE, false);
+        ismcts.setSeed(3L);
+        ismcts.setTimeBudgetMillis(100);
+        Game game = new Game(5L);
+        long start = System.nanoTime();
+        ismcts.selectMove(game);
+        long millis = (System.nanoTime() - start) / 1000000L;
+        assertTrue("Search took " + millis + "ms", millis < 100 + 1000);
+        int iterations = ismcts.getLastIterations();
+        assertTrue(iterations > 0);
+        assertTrue(iterations < Integer.MAX_VALUE);
+        assertEquals(iterations, ismcts.getLastMetrics().getIterations());
+        assertEquals(Long.valueOf(iterations), ismcts.getIterationsByState().get(game.getState()));
+    }
+
+    @Test
+    public void stopBeforeSearch() {
+        // A stop which comes between moves ends the next search after its first iteration, and only that one
+        ISMCTS ismcts = new ISMCTS(200, false);
+        ismcts.setSeed(3L);
+        ismcts.stop();
+        Game game = ismcts.selectMove(new Game(5L));
+        assertEquals(1, ismcts.getLastMetrics().getIterations());
+        ismcts.selectMove(game);
+        assertEquals(200, ismcts.getLastMetrics().getIterations());
+    }
+}
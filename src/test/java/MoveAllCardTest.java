@@ -2,8 +2,11 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -19,20 +22,43 @@ public class MoveAllCardTest {
         }).collect(Collectors.toList());
         Deck<Tile> deck = new Deck(tiles);
         board = new Board(deck,
-                Arrays.asList(new Cube(Color.BLUE), new Cube(Color.BLUE), new Cube(Color.ORANGE), new Cube(Color.ORANGE),
-                        new Cube(Color.GREEN)),
-                Arrays.asList(new Cube(Color.BLUE), new Cube(Color.BLUE), new Cube(Color.GREEN), new Cube(Color.GREEN),
-                        new Cube(Color.ORANGE))
+                Arrays.asList(Cube.of(Color.BLUE), Cube.of(Color.BLUE), Cube.of(Color.ORANGE), Cube.of(Color.ORANGE),
+                        Cube.of(Color.GREEN)),
+                Arrays.asList(Cube.of(Color.BLUE), Cube.of(Color.BLUE), Cube.of(Color.GREEN), Cube.of(Color.GREEN),
+                        Cube.of(Color.ORANGE))
         );
     }
 
     @Test
     public void getPossibleMoves() {
-        Card card = new MoveAllCard();
+        Card card = MoveAllCard.INSTANCE;
         Set<Board> mvs = card.getPossibleMoves(this.board);
+        // Every move leaves a different board
+        assertEquals(card.countMoves(this.board), mvs.size());
         for(Board b : mvs) {
             System.out.println(b.toString());
             System.out.println("");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void sampleMove() {
+        // Samples are the listed moves, each about as often as the others
+        Card card = MoveAllCard.INSTANCE;
+        MoveList listed = new MoveList();
+        card.listMoves(this.board, 0L, listed);
+        long[] moves = listed.toSortedArray();
+        assertEquals(moves.length, card.countMoves(this.board));
+        Map<Long, Integer> drawn = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(5L);
+        for(int i = 0; i < moves.length * 500; i++) {
+            long move = card.sampleMove(this.board, 0L, random);
+            assertTrue(Arrays.binarySearch(moves, move) >= 0);
+            drawn.merge(move, 1, Integer::sum);
+        }
+        assertEquals(moves.length, drawn.size());
+        for(int n : drawn.values()) {
+            assertEquals(500, n, 125);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MoveTest {
+    private static final long ARGUMENT = 0xABCDEF123456L;
+
+    @Test
+    public void roundTrip() {
+        // Every type, with every player and none, comes back out as it went in
+        PlayerType[] players = {PlayerType.SCIENTIST, PlayerType.CREATURE, null};
+        for(MoveType type : MoveType.values()) {
+            for(PlayerType player : players) {
+                long move = Move.of(type, player, ARGUMENT);
+                assertEquals(type, Move.type(move));
+                assertEquals(player, Move.player(move));
+                assertEquals(0, Move.card(move));
+                assertEquals(ARGUMENT, Move.argument(move));
+            }
+        }
+    }
+
+    @Test
+    public void highestCard() {
+        // The highest card id in play, and the highest the four card bits can hold
+        MoveType last = MoveType.values()[MoveType.values().length - 1];
+        for(int card : new int[] {SplitCard.INSTANCE.getCardId(), 0xF}) {
+            long move = Move.of(last, PlayerType.CREATURE, card, ARGUMENT);
+            assertEquals(last, Move.type(move));
+            assertEquals(PlayerType.CREATURE, Move.player(move));
+            assertEquals(card, Move.card(move));
+            assertEquals(ARGUMENT, Move.argument(move));
+        }
+    }
+
+    @Test
+    public void wideArgumentIsMasked() {
+        // Bits of the argument above the low 48 are dropped rather than spilling into the card, player or type
+        long move = Move.of(MoveType.values()[0], PlayerType.SCIENTIST, 1, -1L);
+        assertEquals(MoveType.values()[0], Move.type(move));
+        assertEquals(PlayerType.SCIENTIST, Move.player(move));
+        assertEquals(1, Move.card(move));
+        assertEquals((1L << 48) - 1, Move.argument(move));
+    }
+}
@@ -0,0 +1,112 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class NodeBudgetTest {
+    private TreeNode root;
+    private TreeNode busy;
+    private TreeNode quiet;
+
+    @Before
+    public void setUp() throws Exception {
+        // A root with two children, one well visited with two grandchildren and one barely visited with one
+        this.root = new TreeNode(Move.NONE, null, null, ISMCTS.DEFAULT_EXPLORATION);
+        this.root.setVisits(100);
+        this.busy = this.root.addChild(1L, PlayerType.CREATURE);
+        this.busy.setVisits(90);
+        this.quiet = this.root.addChild(2L, PlayerType.CREATURE);
+        this.quiet.setVisits(1);
+        this.busy.addChild(3L, PlayerType.SCIENTIST).setVisits(80);
+        this.busy.addChild(4L, PlayerType.SCIENTIST).setVisits(1);
+        this.quiet.addChild(5L, PlayerType.SCIENTIST).setVisits(1);
+    }
+
+    @Test
+    public void countNodes() {
+        assertEquals(6, NodeBudget.countNodes(this.root));
+        assertEquals(2, NodeBudget.countNodes(this.quiet));
+    }
+
+    @Test
+    public void stopExpansion() {
+        NodeBudget budget = new NodeBudget(7, NodeBudget.Policy.STOP_EXPANSION, this.root, new AtomicLong());
+        assertTrue(budget.canExpand());
+        budget.added();
+        assertFalse(budget.canExpand());
+        // Stopping expansion never removes nodes
+        budget.beforeIteration(this.root, null);
+        assertEquals(6, NodeBudget.countNodes(this.root));
+    }
+
+    @Test
+    public void pruneLeastVisited() {
+        AtomicLong evicted = new AtomicLong();
+        NodeBudget budget = new NodeBudget(6, NodeBudget.Policy.PRUNE, this.root, evicted);
+        assertFalse(budget.canExpand());
+        budget.beforeIteration(this.root, null);
+        // The root's children stay, but their barely visited children go
+        assertEquals(4, budget.getCount());
+        assertEquals(2, evicted.get());
+        assertEquals(2, this.root.getChildren().size());
+        assertEquals(1, this.busy.getChildren().size());
+        assertEquals(3L, this.busy.getChildren().get(0).getMove());
+        assertTrue(this.quiet.getChildren().isEmpty());
+        assertTrue(budget.canExpand());
+    }
+
+    @Test
+    public void pruneThroughTransposition() {
+        // A root child reached by transposition shares the children of a node deeper in the tree. Pruning that node
+        // leaves its children reachable through the transposition, so they must still be counted and pruned.
+        TreeNode root = new TreeNode(Move.NONE, null, null, ISMCTS.DEFAULT_EXPLORATION);
+        root.setVisits(100);
+        TreeNode busy = root.addChild(1L, PlayerType.CREATURE);
+        busy.setVisits(90);
+        TreeNode original = busy.addChild(2L, PlayerType.SCIENTIST);
+        original.setVisits(3);
+        for(long move = 10L; move < 13L; move++) {
+            TreeNode child = original.addChild(move, PlayerType.CREATURE);
+            child.setVisits(3);
+            child.addChild(move * 10, PlayerType.SCIENTIST).setVisits(3);
+        }
+        root.addTransposition(3L, original);
+        assertEquals(10, reachable(root));
+        assertEquals(10, NodeBudget.countNodes(root));
+
+        AtomicLong evicted = new AtomicLong();
+        NodeBudget budget = new NodeBudget(5, NodeBudget.Policy.PRUNE, root, evicted);
+        budget.beforeIteration(root, null);
+        assertTrue(reachable(root) <= 5);
+        assertEquals(reachable(root), budget.getCount());
+        assertEquals(10 - reachable(root), evicted.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noPruningSharedTrees() {
+        ISMCTS ismcts = new ISMCTS(100, false, ISMCTS.DEFAULT_EXPLORATION, 2, ISMCTS.Parallelism.TREE);
+        assertEquals(NodeBudget.Policy.STOP_EXPANSION, ismcts.getBudgetPolicy());
+        ismcts.setBudgetPolicy(NodeBudget.Policy.PRUNE);
+    }
+
+    private static int reachable(TreeNode root) {
+        // Every distinct node object which can be reached from the root, found without NodeBudget
+        Set<TreeNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<TreeNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while(!stack.isEmpty()) {
+            TreeNode node = stack.pop();
+            if(seen.add(node)) {
+                node.getChildren().forEach(stack::push);
+            }
+        }
+        return seen.size();
+    }
+}
@@ -0,0 +1,50 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ParameterSweepTest {
+    private ParameterSweep sweep;
+
+    @Before
+    public void setUp() throws Exception {
+        this.sweep = new ParameterSweep(new Rules(), 1, 2, 3L, () -> new ISMCTS(5, false), () -> new ISMCTS(5, false));
+    }
+
+    @Test
+    public void configurations() {
+        this.sweep.addRange(ParameterSweep.Parameter.DECK_SIZE, 14, 17, 3);
+        this.sweep.addRange(ParameterSweep.Parameter.TOKEN_TILES, 5, 8, 1);
+        // A deck of 14 has room for 7 token tiles below the board, so 8 is left out
+        List<Rules> configurations = this.sweep.configurations();
+        assertEquals(7, configurations.size());
+        for(Rules rules : configurations) {
+            assertTrue(rules.getDeckSize() == 14 || rules.getDeckSize() == 17);
+            assertTrue(rules.getTokenTiles() <= rules.getUnseenTiles());
+        }
+    }
+
+    @Test
+    public void cubeCounts() {
+        Rules rules = new Rules();
+        ParameterSweep.Parameter.LEFT_GREEN.set(rules, 3);
+        assertEquals(3, ParameterSweep.Parameter.LEFT_GREEN.get(rules));
+        assertEquals(7, rules.getCubes(Board.Side.LEFT).size());
+        assertEquals(2, ParameterSweep.Parameter.LEFT_BLUE.get(rules));
+    }
+
+    @Test
+    public void writeTable() throws Exception {
+        this.sweep.addRange(ParameterSweep.Parameter.SCIENTIST_SPLIT, 4, 5, 1);
+        List<ParameterSweep.Row> rows = this.sweep.run();
+        assertEquals(2, rows.size());
+        StringBuilder table = new StringBuilder();
+        this.sweep.writeTable(rows, table);
+        String[] lines = table.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("scientist_split\tgames"));
+        assertTrue(lines[1].startsWith("4\t1\t"));
+    }
+}
@@ -1,6 +1,8 @@
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.SplittableRandom;
+
 import static org.junit.Assert.*;
 
 public class PlayerTest {
@@ -23,9 +25,22 @@ public class PlayerTest {
     @Test
     public void uniqueCards() {
         this.player.setHand(new Deck<>());
-        this.player.getHand().addToDeck(new MoveAllCard());
-        this.player.getHand().addToDeck(new MoveAllCard());
-        this.player.getHand().addToDeck(new MoveOneCard());
+        this.player.getHand().addToDeck(MoveAllCard.INSTANCE);
+        this.player.getHand().addToDeck(MoveAllCard.INSTANCE);
+        this.player.getHand().addToDeck(MoveOneCard.INSTANCE);
         System.out.println(this.player.uniqueCards());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void copiesShareCards() {
+        // Copying or redealing a player moves the same cards around rather than making new ones
+        Player copy = new Player(this.player);
+        assertSame(this.player.getHand().getItems().get(0), copy.getHand().getItems().get(0));
+        Player redealt = this.player.cloneAndRandomise(true, new SplittableRandom(3L));
+        for(Card card : redealt.getHand().getItems()) {
+            assertTrue(card == MoveOneCard.INSTANCE || card == MoveAllCard.INSTANCE || card == SplitCard.INSTANCE);
+        }
+        assertEquals(this.player.getHand().size(), redealt.getHand().size());
+        assertEquals(this.player.getDeck().size(), redealt.getDeck().size());
+    }
+}
@@ -0,0 +1,60 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SearchMetricsTest {
+    @Test
+    public void merge() {
+        SearchMetrics first = new SearchMetrics();
+        first.addIteration(2, 10);
+        first.addBranching(GameState.MOVE_CUBES, 4);
+        SearchMetrics second = new SearchMetrics();
+        second.addIteration(4, 20);
+        second.addBranching(GameState.MOVE_CUBES, 8);
+        second.addBranching(GameState.SCIENTIST_DROP, 3);
+
+        SearchMetrics merged = new SearchMetrics();
+        merged.merge(first);
+        merged.merge(second);
+        merged.finish(1000000000L, 7);
+        assertEquals(2, merged.getIterations());
+        assertEquals(2.0, merged.getIterationsPerSecond(), 1e-9);
+        assertEquals(3.0, merged.getMeanDepth(), 1e-9);
+        assertEquals(4, merged.getMaxDepth());
+        assertEquals(15.0, merged.getMeanPlayoutLength(), 1e-9);
+        assertEquals(6.0, merged.getBranchingFactor(GameState.MOVE_CUBES), 1e-9);
+        assertEquals(3.0, merged.getBranchingFactor(GameState.SCIENTIST_DROP), 1e-9);
+        assertEquals(0.0, merged.getBranchingFactor(GameState.TIEBREAKER), 1e-9);
+        assertEquals(7, merged.getTreeSize());
+    }
+
+    @Test
+    public void lap() {
+        SearchMetrics metrics = new SearchMetrics();
+        long start = System.nanoTime();
+        long mark = metrics.lap(SearchMetrics.Phase.SELECT, start);
+        assertTrue(mark >= start);
+        assertEquals(mark - start, metrics.getPhaseNanos(SearchMetrics.Phase.SELECT));
+        assertEquals(0, metrics.getPhaseNanos(SearchMetrics.Phase.SIMULATE));
+    }
+
+    @Test
+    public void searchReportsMetrics() {
+        for(ISMCTS.Storage storage : ISMCTS.Storage.values()) {
+            ISMCTS ismcts = new ISMCTS(200, false);
+            ismcts.setStorage(storage);
+            ismcts.setSeed(3L);
+            ismcts.selectMove(new Game(5L));
+            SearchMetrics metrics = ismcts.getLastMetrics();
+            assertEquals(200, metrics.getIterations());
+            assertEquals(ismcts.getLastTreeSize(), metrics.getTreeSize());
+            assertTrue(metrics.getMeanDepth() >= 1);
+            assertTrue(metrics.getBranchingFactor(GameState.MOVE_CUBES) > 1);
+            double share = 0;
+            for(SearchMetrics.Phase phase : SearchMetrics.Phase.values()) {
+                share += metrics.getPhaseShare(phase);
+            }
+            assertEquals(1.0, share, 1e-9);
+        }
+    }
+}
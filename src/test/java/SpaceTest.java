@@ -14,9 +14,9 @@ public class SpaceTest {
     @Before
     public void setUp() throws Exception {
         this.space = new Space();
-        this.space.addCube(new Cube(Color.BLUE));
-        this.space.addCube(new Cube(Color.BLUE));
-        this.space.addCube(new Cube(Color.ORANGE));
+        this.space.addCube(Cube.of(Color.BLUE));
+        this.space.addCube(Cube.of(Color.BLUE));
+        this.space.addCube(Cube.of(Color.ORANGE));
     }
 
     @After
@@ -40,6 +40,25 @@ public class SpaceTest {
          System.out.println(this.space.toString());
      }
 
+    @Test
+    public void getCubeCountOfColor() {
+        assertEquals(2, this.space.getCubeCount(Color.BLUE));
+        assertEquals(1, this.space.getCubeCount(Color.ORANGE));
+        assertEquals(0, this.space.getCubeCount(Color.GREEN));
+        this.space.removeCube(Cube.of(Color.BLUE));
+        this.space.removeCube(Cube.of(Color.GREEN));
+        assertEquals(1, this.space.getCubeCount(Color.BLUE));
+        assertEquals(2, this.space.getCubeCount());
+    }
+
+    @Test
+    public void getCubesSorted() {
+        Space reversed = new Space(Arrays.asList(Cube.of(Color.ORANGE), Cube.of(Color.GREEN),
+                Cube.of(Color.BLUE)));
+        assertEquals(Arrays.asList(Cube.of(Color.BLUE), Cube.of(Color.GREEN), Cube.of(Color.ORANGE)),
+                reversed.getCubes());
+    }
+
     @Test
     public void testEquals() {
         // Set up an equivalent space
@@ -50,15 +69,15 @@ public class SpaceTest {
         // Set up equivalent space from scratch, with the cubes in a different order
         Space equiNewSpace = new Space();
         equiNewSpace.addCubes(Arrays.asList(new Cube[] {
-                new Cube(Color.BLUE),
-                new Cube(Color.ORANGE),
-                new Cube(Color.BLUE)
+                Cube.of(Color.BLUE),
+                Cube.of(Color.ORANGE),
+                Cube.of(Color.BLUE)
         }));
         assertEquals(this.space, equiNewSpace);
         assertEquals(equiNewSpace, this.space);
         // Create an unequal space
         Space diffSpace = new Space(this.space);
-        diffSpace.addCube(new Cube(Color.GREEN));
+        diffSpace.addCube(Cube.of(Color.GREEN));
         assertNotEquals(this.space, diffSpace);
     }
 
@@ -69,13 +88,13 @@ public class SpaceTest {
         Space copy = new Space(this.space);
         assertEquals(copy.hashCode(), this.space.hashCode());
         // Add a cube and check different
-        copy.addCube(new Cube(Color.GREEN));
+        copy.addCube(Cube.of(Color.GREEN));
         assertNotEquals(copy.hashCode(), this.space.hashCode());
         // Test different order has same hash
         Space equiv = new Space(Arrays.asList(new Cube[] {
-                new Cube(Color.ORANGE),
-                new Cube(Color.BLUE),
-                new Cube(Color.BLUE)
+                Cube.of(Color.ORANGE),
+                Cube.of(Color.BLUE),
+                Cube.of(Color.BLUE)
         }));
         assertEquals(equiv.hashCode(), this.space.hashCode());
     }
@@ -2,8 +2,6 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
-import javax.jws.soap.SOAPBinding;
-
 import java.util.HashSet;
 import java.util.Set;
 
@@ -22,4 +20,14 @@ public class TileTest {
     @After
     public void tearDown() throws Exception {
     }
-}
\ No newline at end of file
+
+    @Test
+    public void of() {
+        // Deck tiles are shared, and equal to tiles made afresh
+        assertSame(Tile.of(true), Tile.of(true));
+        assertEquals(this.tile, Tile.of(true));
+        assertNotEquals(Tile.of(false), Tile.of(true));
+        assertTrue(Tile.of(true).isTokenPresent());
+        assertFalse(Tile.of(false).isCreaturePresent());
+    }
+}
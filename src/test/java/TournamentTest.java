@@ -0,0 +1,32 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TournamentTest {
+    @Test
+    public void countsEveryGame() {
+        Tournament tournament = new Tournament(3, 2, 1L, () -> new ISMCTS(5, false), () -> new ISMCTS(5, false));
+        Tournament.Result result = tournament.run();
+        assertEquals(3, result.getGames());
+        assertEquals(3, result.getScientistWins() + result.getCreatureWins());
+    }
+
+    @Test
+    public void gamesReplay() {
+        Tournament tournament = new Tournament(1, 1, 2L, () -> new ISMCTS(5, false), () -> new ISMCTS(5, false));
+        assertEquals(tournament.playGame(0), tournament.playGame(0));
+    }
+
+    @Test
+    public void confidenceInterval() {
+        Tournament.Result result = new Tournament.Result(50, 50);
+        assertEquals(0.5, result.winRate(PlayerType.CREATURE), 1e-9);
+        double[] interval = result.confidenceInterval(PlayerType.SCIENTIST, 0.95);
+        assertEquals(0.4038, interval[0], 1e-4);
+        assertEquals(0.5962, interval[1], 1e-4);
+        // One sided results stay within [0, 1]
+        interval = new Tournament.Result(0, 10).confidenceInterval(PlayerType.SCIENTIST, 0.95);
+        assertEquals(0, interval[0], 1e-9);
+        assertTrue(interval[1] > 0 && interval[1] < 1);
+    }
+}
@@ -0,0 +1,52 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TranspositionTableTest {
+    private TranspositionTable table;
+
+    @Before
+    public void setUp() throws Exception {
+        this.table = new TranspositionTable(4);
+    }
+
+    @Test
+    public void getAndPut() {
+        TreeNode node = new TreeNode(Move.NONE, null, PlayerType.CREATURE, ISMCTS.DEFAULT_EXPLORATION);
+        assertNull(this.table.get(5L));
+        this.table.put(5L, node);
+        assertSame(node, this.table.get(5L));
+        assertEquals(1, this.table.size());
+        assertEquals(1, this.table.getHits());
+    }
+
+    @Test
+    public void replacesLeastVisited() {
+        // Keys 0, 2 and 4 share a bucket of a 4 node table
+        TreeNode busy = new TreeNode(Move.NONE, null, PlayerType.CREATURE, ISMCTS.DEFAULT_EXPLORATION);
+        busy.setVisits(10);
+        TreeNode quiet = new TreeNode(Move.NONE, null, PlayerType.CREATURE, ISMCTS.DEFAULT_EXPLORATION);
+        quiet.setVisits(1);
+        TreeNode next = new TreeNode(Move.NONE, null, PlayerType.CREATURE, ISMCTS.DEFAULT_EXPLORATION);
+        this.table.put(0L, busy);
+        this.table.put(2L, quiet);
+        this.table.put(4L, next);
+        assertSame(busy, this.table.get(0L));
+        assertNull(this.table.get(2L));
+        assertSame(next, this.table.get(4L));
+        assertEquals(1, this.table.getReplaced());
+    }
+
+    @Test
+    public void transpositionsShareResults() {
+        TreeNode root = new TreeNode(Move.NONE, null, null, ISMCTS.DEFAULT_EXPLORATION);
+        TreeNode first = root.addChild(1L, PlayerType.CREATURE);
+        TreeNode second = root.addTransposition(2L, first);
+        second.update(GameState.CREATURE_WIN);
+        assertEquals(1, first.getVisits());
+        assertEquals(1, first.getWins());
+        assertSame(first.getChildren(), second.getChildren());
+        assertEquals(2L, second.getMove());
+    }
+}